@@ -18,87 +18,52 @@ package org.apache.sling.feature.apiregions.model;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
-import java.util.StringTokenizer;
-import java.util.regex.Pattern;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * In-memory representation of a <code>api-regions</code> section.
  */
 public final class ApiRegion implements Iterable<String> {
 
-    private static final Pattern PACKAGE_NAME_VALIDATION =
-            Pattern.compile("^[a-z]+(\\.[a-zA-Z_][a-zA-Z0-9_]*)*$");
-
-    private static final String PACKAGE_DELIM = ".";
-
-    private static final Set<String> KEYWORDS = new HashSet<>();
-
-    static {
-        KEYWORDS.add("abstract");
-        KEYWORDS.add("continue");
-        KEYWORDS.add("for");
-        KEYWORDS.add("new");
-        KEYWORDS.add("switch");
-        KEYWORDS.add("assert");
-        KEYWORDS.add("default");
-        KEYWORDS.add("package");
-        KEYWORDS.add("synchronized");
-        KEYWORDS.add("boolean");
-        KEYWORDS.add("do");
-        KEYWORDS.add("if");
-        KEYWORDS.add("private");
-        KEYWORDS.add("this");
-        KEYWORDS.add("break");
-        KEYWORDS.add("double");
-        KEYWORDS.add("implements");
-        KEYWORDS.add("protected");
-        KEYWORDS.add("throw");
-        KEYWORDS.add("byte");
-        KEYWORDS.add("else");
-        KEYWORDS.add("import");
-        KEYWORDS.add("public");
-        KEYWORDS.add("throws");
-        KEYWORDS.add("case");
-        KEYWORDS.add("enum");
-        KEYWORDS.add("instanceof");
-        KEYWORDS.add("return");
-        KEYWORDS.add("transient");
-        KEYWORDS.add("catch");
-        KEYWORDS.add("extends");
-        KEYWORDS.add("int");
-        KEYWORDS.add("short");
-        KEYWORDS.add("try");
-        KEYWORDS.add("char");
-        KEYWORDS.add("final");
-        KEYWORDS.add("interface");
-        KEYWORDS.add("static");
-        KEYWORDS.add("void");
-        KEYWORDS.add("class");
-        KEYWORDS.add("finally");
-        KEYWORDS.add("long");
-        KEYWORDS.add("strictfp");
-        KEYWORDS.add("volatile");
-        KEYWORDS.add("float");
-        KEYWORDS.add("native");
-        KEYWORDS.add("super");
-        KEYWORDS.add("while");
-    }
-
     private final Set<String> apis = new HashSet<>();
 
     private final String name;
 
     private final ApiRegion parent;
 
+    // lexicographically sorted view of the exports, dropped on any change
+    private List<String> sortedApis;
+
+    private final ApiRegions owner;
+
+    private final int depth;
+
+    // flattened view of the APIs visible across the whole hierarchy, null until requested
+    private Set<String> effectiveApis;
+
+    // regions in this subtree, this one included, whose effective exports index is built; null if none
+    private List<ApiRegion> indexedRegions;
+
     protected ApiRegion(String name, ApiRegion parent) {
+        this(name, parent, null);
+    }
+
+    ApiRegion(String name, ApiRegion parent, ApiRegions owner) {
         this.name = name;
         this.parent = parent;
+        this.owner = owner;
+        this.depth = parent != null ? parent.depth + 1 : 0;
     }
 
     /**
@@ -142,26 +107,37 @@ public final class ApiRegion implements Iterable<String> {
      * @return true if the API package is added, false otherwise.
      */
     public boolean add(String api) {
-        // ignore null, empty package and non well-formed packages names, i.e. javax.jms.doc-files
-        if (isEmpty(api) || !PACKAGE_NAME_VALIDATION.matcher(api).matches()) {
+        // ignore null, empty package, non well-formed packages names, i.e. javax.jms.doc-files,
+        // and packages with reserved keywords, i.e. org.apache.commons.lang.enum
+        if (!PackageNameValidator.isValid(api)) {
             // ignore it
             return false;
         }
 
-        // ignore packages with reserved keywords, i.e. org.apache.commons.lang.enum
-        StringTokenizer tokenizer = new StringTokenizer(api, PACKAGE_DELIM);
-        while (tokenizer.hasMoreTokens()) {
-            String apiPart = tokenizer.nextToken();
-            if (KEYWORDS.contains(apiPart)) {
-                return false;
-            }
-        }
+        return addTrusted(api);
+    }
 
-        if (contains(api)) {
+    /**
+     * Add a new API package already known to be valid, i.e. exported by another region, skipping the validation.
+     *
+     * @param api the new, valid, API package
+     * @return true if the API package is added, false otherwise.
+     */
+    boolean addTrusted(String api) {
+        if (isEmpty(api) || contains(api)) {
             return false;
         }
 
-        return apis.add(api);
+        if (apis.add(api)) {
+            sortedApis = null;
+            indexAdded(api);
+            if (owner != null) {
+                owner.onAdded(this, api);
+            }
+            return true;
+        }
+
+        return false;
     }
 
     /**
@@ -189,6 +165,16 @@ public final class ApiRegion implements Iterable<String> {
             return false;
         }
 
+        if (owner != null) {
+            // the owner hierarchy is linear: the shallowest defining region is visible only from itself and below
+            ApiRegion definingRegion = owner.getRegionOf(api);
+            return definingRegion != null && definingRegion.depth <= depth;
+        }
+
+        if (effectiveApis != null) {
+            return effectiveApis.contains(api);
+        }
+
         if (exports(api)) {
             return true;
         }
@@ -231,6 +217,11 @@ public final class ApiRegion implements Iterable<String> {
         }
 
         if (apis.remove(api)) {
+            sortedApis = null;
+            indexRemoved(api);
+            if (owner != null) {
+                owner.onRemoved(this, api);
+            }
             return true;
         }
 
@@ -241,20 +232,123 @@ public final class ApiRegion implements Iterable<String> {
         return false;
     }
 
+    /**
+     * Builds, if not already done, a flattened index of the API packages visible in this region
+     * across the whole region hierarchy, so that {@link #contains(String)} costs a single lookup
+     * regardless of the hierarchy depth.
+     *
+     * The index is kept up to date when API packages are added to, or removed from,
+     * this region or any of its parents, at the cost of additional memory.
+     *
+     * Regions created via {@link ApiRegions#addNew(String)} already answer in constant time
+     * through the {@link ApiRegions} index, so no additional index is built for them.
+     */
+    public void indexEffectiveExports() {
+        if (owner != null || effectiveApis != null) {
+            return;
+        }
+
+        Set<String> effectiveApis = new HashSet<>();
+        ApiRegion region = this;
+        while (region != null) {
+            effectiveApis.addAll(region.apis);
+            if (region.indexedRegions == null) {
+                region.indexedRegions = new ArrayList<>();
+            }
+            region.indexedRegions.add(this);
+            region = region.getParent();
+        }
+        this.effectiveApis = effectiveApis;
+    }
+
+    Set<String> getExportsSet() {
+        return apis;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    private void indexAdded(String api) {
+        if (indexedRegions == null) {
+            return;
+        }
+
+        for (ApiRegion indexedRegion : indexedRegions) {
+            indexedRegion.effectiveApis.add(api);
+        }
+    }
+
+    private void indexRemoved(String api) {
+        if (indexedRegions == null) {
+            return;
+        }
+
+        for (ApiRegion indexedRegion : indexedRegions) {
+            // any other region up to the root may still export it, ancestors of this one included
+            boolean stillVisible = false;
+            for (ApiRegion region = indexedRegion; region != null && !stillVisible; region = region.parent) {
+                stillVisible = region.apis.contains(api);
+            }
+            if (!stillVisible) {
+                indexedRegion.effectiveApis.remove(api);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Iterator<String> iterator() {
-        List<Iterable<String>> iterators = new LinkedList<>();
+        return new ApiRegionIterator(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The returned spliterator is sized and splits across the regions in the hierarchy first,
+     * then across the API packages of a single region.
+     */
+    @Override
+    public Spliterator<String> spliterator() {
+        @SuppressWarnings("unchecked")
+        Collection<String>[] exports = (Collection<String>[]) new Collection<?>[depth + 1];
 
         ApiRegion region = this;
-        while (region != null) {
-            iterators.add(region.apis);
+        for (int i = 0; i < exports.length; i++) {
+            exports[i] = region.apis;
             region = region.getParent();
         }
 
-        return new JoinedIterator<String>(iterators.iterator());
+        return new ApiRegionSpliterator(exports);
+    }
+
+    /**
+     * Returns a sequential stream of the API packages contained by this region across the whole region hierarchy.
+     *
+     * @return a sequential stream of the API packages contained by this region across the whole region hierarchy.
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the API packages contained by this region across the whole region hierarchy.
+     *
+     * @return a parallel stream of the API packages contained by this region across the whole region hierarchy.
+     */
+    public Stream<String> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a sequential stream of the API packages that are stored only in this region.
+     *
+     * @return a sequential stream of the API packages that are stored only in this region.
+     */
+    public Stream<String> exportsStream() {
+        return apis.stream();
     }
 
     /**
@@ -266,6 +360,22 @@ public final class ApiRegion implements Iterable<String> {
         return apis;
     }
 
+    /**
+     * Returns the API packages that are stored only in this region, sorted lexicographically.
+     *
+     * The sorted view is computed once and reused until this region changes.
+     *
+     * @return the API packages that are stored only in this region, sorted lexicographically.
+     */
+    public List<String> getSortedExports() {
+        if (sortedApis == null) {
+            String[] sorted = apis.toArray(new String[0]);
+            Arrays.sort(sorted);
+            sortedApis = Collections.unmodifiableList(Arrays.asList(sorted));
+        }
+        return sortedApis;
+    }
+
     @Override
     public String toString() {
         Formatter formatter = new Formatter();
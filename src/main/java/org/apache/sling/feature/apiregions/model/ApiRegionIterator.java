@@ -17,38 +17,43 @@
 package org.apache.sling.feature.apiregions.model;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
-final class JoinedIterator<E> implements Iterator<E> {
+/**
+ * Iterates over the API packages of a region and then over the ones of its parents,
+ * moving a cursor up the hierarchy without collecting the regions first.
+ */
+final class ApiRegionIterator implements Iterator<String> {
 
-    private final Iterator<Iterable<E>> iterator;
+    // next region in the hierarchy whose exports still have to be visited
+    private ApiRegion region;
 
-    private Iterator<E> currentIterator;
+    private Iterator<String> current;
 
-    public JoinedIterator(Iterator<Iterable<E>> iterator) {
-        this.iterator = iterator;
-        currentIterator = null;
+    public ApiRegionIterator(ApiRegion region) {
+        this.region = region;
     }
 
     @Override
     public boolean hasNext() {
-        if (currentIterator == null) {
-            if (iterator.hasNext()) {
-                currentIterator = iterator.next().iterator();
-            } else {
+        while (current == null || !current.hasNext()) {
+            if (region == null) {
                 return false;
             }
-        }
 
-        while (!currentIterator.hasNext() && iterator.hasNext()) {
-            currentIterator = iterator.next().iterator();
+            current = region.getExportsSet().iterator();
+            region = region.getParent();
         }
 
-        return currentIterator.hasNext();
+        return true;
     }
 
     @Override
-    public E next() {
-        return currentIterator.next();
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
     }
 
 }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits the API packages visible from a region across the whole hierarchy:
+ * the exports of different regions are split first, then the exports of a single region.
+ *
+ * Exports are expected ordered from the region to the root of its hierarchy.
+ * A package exported by more than one region of the hierarchy is reported once per region.
+ */
+final class ApiRegionSpliterator implements Spliterator<String> {
+
+    private final Collection<String>[] exports;
+
+    private final int fence;
+
+    private int index;
+
+    // the exports of the region currently traversed, if any
+    private Spliterator<String> current;
+
+    public ApiRegionSpliterator(Collection<String>[] exports) {
+        this(exports, 0, exports.length);
+    }
+
+    private ApiRegionSpliterator(Collection<String>[] exports, int index, int fence) {
+        this.exports = exports;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        while (current == null || !current.tryAdvance(action)) {
+            if (index >= fence) {
+                current = null;
+                return false;
+            }
+            current = exports[index++].spliterator();
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        if (current != null) {
+            current.forEachRemaining(action);
+            current = null;
+        }
+
+        while (index < fence) {
+            exports[index++].forEach(action);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (current == null) {
+            int remaining = fence - index;
+
+            if (remaining > 1) {
+                int middle = index + (remaining >>> 1);
+                Spliterator<String> prefix = new ApiRegionSpliterator(exports, index, middle);
+                index = middle;
+                return prefix;
+            }
+
+            if (remaining == 0) {
+                return null;
+            }
+
+            current = exports[index++].spliterator();
+        }
+
+        if (index < fence) {
+            // hand over the region being traversed, keep the remaining ones
+            Spliterator<String> prefix = current;
+            current = null;
+            return prefix;
+        }
+
+        return current.trySplit();
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = current != null ? current.estimateSize() : 0;
+        for (int i = index; i < fence; i++) {
+            size += exports[i].size();
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        // not DISTINCT: a parent may export a package already exported by one of its descendants
+        int characteristics = NONNULL;
+        if (current == null || current.hasCharacteristics(SIZED)) {
+            characteristics |= SIZED;
+        }
+        return characteristics;
+    }
+
+}
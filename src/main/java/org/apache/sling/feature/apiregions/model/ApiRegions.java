@@ -16,15 +16,27 @@
  */
 package org.apache.sling.feature.apiregions.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Stack;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <code>api-regions</code> in memory representation.
  */
 public final class ApiRegions implements Iterable<ApiRegion> {
 
-    private final Stack<ApiRegion> regions = new Stack<>();
+    private final List<ApiRegion> regions = new ArrayList<>();
+
+    private final Map<String, ApiRegion> regionsByName = new HashMap<>();
+
+    // API package -> shallowest region exporting it
+    private final Map<String, ApiRegion> regionsByApi = new HashMap<>();
 
     /**
      * Creates then adds a new API region, given its name.
@@ -40,13 +52,15 @@ public final class ApiRegions implements Iterable<ApiRegion> {
             throw new IllegalArgumentException("Impossible to create a new API Region without specifying a valid name");
         }
 
-        if (getByName(regionName) != null) {
+        if (regionsByName.containsKey(regionName)) {
             throw new IllegalArgumentException("API Region '" + regionName + "' already exists, please specifying a different valid name");
         }
 
-        ApiRegion parent = regions.isEmpty() ? null : regions.peek(); // null parent means 'root' in the hierarchy
-        ApiRegion newRegion = new ApiRegion(regionName, parent);
-        return regions.push(newRegion);
+        ApiRegion parent = regions.isEmpty() ? null : regions.get(regions.size() - 1); // null parent means 'root' in the hierarchy
+        ApiRegion newRegion = new ApiRegion(regionName, parent, this);
+        regions.add(newRegion);
+        regionsByName.put(regionName, newRegion);
+        return newRegion;
     }
 
     /**
@@ -60,13 +74,46 @@ public final class ApiRegions implements Iterable<ApiRegion> {
             return null;
         }
 
-        for (ApiRegion region : regions) {
-            if (regionName.equals(region.getName())) {
-                return region;
+        return regionsByName.get(regionName);
+    }
+
+    /**
+     * Search and returns, if found, the first region in the hierarchy which exports the given API package.
+     *
+     * @param api the API package to look for
+     * @return the first region in the hierarchy which exports the passed API package,
+     * null if not found or the API package is null or empty
+     */
+    public ApiRegion getRegionOf(String api) {
+        if (api == null || api.isEmpty()) {
+            return null;
+        }
+
+        return regionsByApi.get(api);
+    }
+
+    void onAdded(ApiRegion region, String api) {
+        ApiRegion current = regionsByApi.get(api);
+        if (current == null || region.getDepth() < current.getDepth()) {
+            regionsByApi.put(api, region);
+        }
+    }
+
+    void onRemoved(ApiRegion region, String api) {
+        if (regionsByApi.get(api) != region) {
+            return;
+        }
+
+        // a region down in the hierarchy may export the same API package as well
+        for (int i = region.getDepth() + 1; i < regions.size(); i++) {
+            ApiRegion candidate = regions.get(i);
+            if (candidate.exports(api)) {
+                regionsByApi.put(api, candidate);
+                return;
             }
         }
 
-        return null;
+        regionsByApi.remove(api);
     }
 
     /**
@@ -78,12 +125,55 @@ public final class ApiRegions implements Iterable<ApiRegion> {
         return regions.isEmpty();
     }
 
+    /**
+     * Creates an immutable snapshot of the current regions,
+     * safe to be shared and queried concurrently by any number of threads.
+     *
+     * Further changes to these regions are not reflected in the returned snapshot.
+     *
+     * @return an immutable snapshot of the current regions.
+     */
+    public FrozenApiRegions freeze() {
+        return new FrozenApiRegions(this);
+    }
+
+    int size() {
+        return regions.size();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Iterator<ApiRegion> iterator() {
-        return regions.iterator();
+        // regions are not removable, the name index must stay aligned with the hierarchy
+        return Collections.unmodifiableList(regions).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<ApiRegion> spliterator() {
+        return regions.spliterator();
+    }
+
+    /**
+     * Returns a sequential stream of the regions, in the hierarchy order.
+     *
+     * @return a sequential stream of the regions, in the hierarchy order.
+     */
+    public Stream<ApiRegion> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the regions.
+     *
+     * @return a parallel stream of the regions.
+     */
+    public Stream<ApiRegion> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
 }
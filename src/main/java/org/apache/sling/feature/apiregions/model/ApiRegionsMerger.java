@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Merges many <code>api-regions</code>, i.e. the ones declared by aggregated Features, into a single one.
+ *
+ * Same-named regions are united; regions are ordered as they first appear in the inputs, in the inputs order,
+ * so the hierarchy order of every input is preserved as long as the inputs do not contradict each other.
+ * Inputs are merged pairwise in a fork-join tree, and the merged API packages are not validated again.
+ */
+public final class ApiRegionsMerger {
+
+    // below this number of inputs, merging serially is cheaper than forking
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+
+    private ApiRegionsMerger() {
+        // this class must not be instantiated from outside
+    }
+
+    /**
+     * Merges the given <code>api-regions</code> on the common ForkJoin pool.
+     *
+     * @param inputs the <code>api-regions</code> to merge
+     * @return the merged <code>api-regions</code>
+     */
+    public static ApiRegions merge(Collection<ApiRegions> inputs) {
+        return merge(inputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Merges the given <code>api-regions</code> on the given ForkJoin pool.
+     *
+     * @param inputs the <code>api-regions</code> to merge
+     * @param pool the pool where running the merge tasks
+     * @return the merged <code>api-regions</code>
+     */
+    public static ApiRegions merge(Collection<ApiRegions> inputs, ForkJoinPool pool) {
+        requireNonNull(inputs, "Impossible to merge null api-regions");
+        requireNonNull(pool, "Impossible to merge api-regions with a null pool");
+
+        List<ApiRegions> sources = new ArrayList<>(inputs);
+        for (ApiRegions source : sources) {
+            requireNonNull(source, "Impossible to merge null api-regions");
+        }
+
+        Map<String, Set<String>> merged = sources.isEmpty()
+                                          ? new LinkedHashMap<>()
+                                          : pool.invoke(new MergeTask(sources, 0, sources.size()));
+
+        ApiRegions apiRegions = new ApiRegions();
+        for (Entry<String, Set<String>> region : merged.entrySet()) {
+            ApiRegion apiRegion = apiRegions.addNew(region.getKey());
+            for (String api : region.getValue()) {
+                // already validated when added to the input region
+                apiRegion.addTrusted(api);
+            }
+        }
+        return apiRegions;
+    }
+
+    // merged regions are plain ordered sets: the hierarchy and its index are built only once, on the final result
+    private static final class MergeTask extends RecursiveTask<Map<String, Set<String>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ApiRegions> sources;
+
+        private final int from;
+
+        private final int to;
+
+        MergeTask(List<ApiRegions> sources, int from, int to) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, Set<String>> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Map<String, Set<String>> merged = new LinkedHashMap<>();
+                for (int i = from; i < to; i++) {
+                    for (ApiRegion apiRegion : sources.get(i)) {
+                        Set<String> apis = merged.computeIfAbsent(apiRegion.getName(), name -> new LinkedHashSet<>());
+                        for (String api : apiRegion.getExports()) {
+                            apis.add(api);
+                        }
+                    }
+                }
+                return merged;
+            }
+
+            int middle = (from + to) >>> 1;
+            MergeTask left = new MergeTask(sources, from, middle);
+            left.fork();
+            Map<String, Set<String>> right = new MergeTask(sources, middle, to).compute();
+            return union(left.join(), right);
+        }
+
+        // left entries come first, so the inputs order is preserved
+        private static Map<String, Set<String>> union(Map<String, Set<String>> left, Map<String, Set<String>> right) {
+            for (Entry<String, Set<String>> region : right.entrySet()) {
+                Set<String> apis = left.get(region.getKey());
+                if (apis == null) {
+                    left.put(region.getKey(), region.getValue());
+                } else {
+                    apis.addAll(region.getValue());
+                }
+            }
+            return left;
+        }
+
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, thread-safe, snapshot of an {@link ApiRegion}:
+ * the API packages are stored in a sorted array.
+ */
+public final class FrozenApiRegion implements Iterable<String> {
+
+    // API package -> depth of the shallowest region exporting it, shared across the whole snapshot
+    private final Map<String, Integer> definingDepths;
+
+    private final String name;
+
+    private final FrozenApiRegion parent;
+
+    private final int depth;
+
+    private final String[] apis;
+
+    private final boolean empty;
+
+    FrozenApiRegion(Map<String, Integer> definingDepths, ApiRegion region, FrozenApiRegion parent) {
+        this.definingDepths = definingDepths;
+        this.name = region.getName();
+        this.parent = parent;
+        this.depth = parent != null ? parent.depth + 1 : 0;
+
+        apis = region.getExportsSet().toArray(new String[0]);
+        Arrays.sort(apis);
+
+        empty = apis.length == 0 && (parent == null || parent.isEmpty());
+    }
+
+    /**
+     * Returns the name identifying this API region.
+     *
+     * @return the name identifying this API region.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the parent API region which is extended,
+     * <code>null</code> if this region represents the first section in the regions.
+     *
+     * @return the parent API region which is extended,
+     * <code>null</code> if this region represents the first section in the regions.
+     */
+    public FrozenApiRegion getParent() {
+        return parent;
+    }
+
+    /**
+     * Checks if the input API is stored only in this region.
+     *
+     * @param api the API package to check
+     * @return true if the API is stored in this region, false otherwise.
+     */
+    public boolean exports(String api) {
+        if (api == null || api.isEmpty()) {
+            return false;
+        }
+        return Arrays.binarySearch(apis, api) >= 0;
+    }
+
+    /**
+     * Check is the region contains, across the whole region hierarchy,
+     * if the input API package is contained.
+     *
+     * @param api the API package to check
+     * @return true, if the API package is contained by this (or parents) region, false otherwise.
+     */
+    public boolean contains(String api) {
+        if (api == null || api.isEmpty()) {
+            return false;
+        }
+        Integer definingDepth = definingDepths.get(api);
+        return definingDepth != null && definingDepth <= depth;
+    }
+
+    /**
+     * Check if this region, across the whole region hierarchy, contains any API.
+     *
+     * @return true if this region, across the whole region hierarchy, contains any API, false otherwise.
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Returns the API packages that are stored only in this region, sorted lexicographically.
+     *
+     * @return the API packages that are stored only in this region, sorted lexicographically.
+     */
+    public List<String> getExports() {
+        return Collections.unmodifiableList(Arrays.asList(apis));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<String> spliterator() {
+        @SuppressWarnings("unchecked")
+        Collection<String>[] exports = (Collection<String>[]) new Collection<?>[depth + 1];
+
+        FrozenApiRegion region = this;
+        for (int i = 0; i < exports.length; i++) {
+            exports[i] = Arrays.asList(region.apis);
+            region = region.getParent();
+        }
+
+        return new ApiRegionSpliterator(exports);
+    }
+
+    /**
+     * Returns a sequential stream of the API packages contained by this region across the whole region hierarchy.
+     *
+     * @return a sequential stream of the API packages contained by this region across the whole region hierarchy.
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the API packages contained by this region across the whole region hierarchy.
+     *
+     * @return a parallel stream of the API packages contained by this region across the whole region hierarchy.
+     */
+    public Stream<String> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a sequential stream of the API packages that are stored only in this region, sorted lexicographically.
+     *
+     * @return a sequential stream of the API packages that are stored only in this region, sorted lexicographically.
+     */
+    public Stream<String> exportsStream() {
+        return Arrays.stream(apis);
+    }
+
+    @Override
+    public String toString() {
+        Formatter formatter = new Formatter();
+        formatter.format("Region '%s'", name);
+
+        if (parent != null) {
+            formatter.format(" inherits from %n")
+                     .format(parent.toString());
+        }
+
+        for (String api : apis) {
+            formatter.format("%n * %s", api);
+        }
+
+        String toString = formatter.toString();
+        formatter.close();
+
+        return toString;
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable snapshot of an {@link ApiRegions}, obtained via {@link ApiRegions#freeze()}.
+ *
+ * Instances never change once created, they can be safely shared and queried
+ * by any number of threads without external synchronization.
+ */
+public final class FrozenApiRegions implements Iterable<FrozenApiRegion> {
+
+    private final List<FrozenApiRegion> regions;
+
+    private final Map<String, FrozenApiRegion> regionsByName;
+
+    // API package -> depth of the shallowest region exporting it, i.e. its index in the regions list
+    private final Map<String, Integer> definingDepths;
+
+    FrozenApiRegions(ApiRegions apiRegions) {
+        // the index is completed before any region, which shares it, is created
+        Map<String, Integer> definingDepths = new HashMap<>();
+        int depth = 0;
+        for (ApiRegion apiRegion : apiRegions) {
+            for (String api : apiRegion.getExportsSet()) {
+                definingDepths.putIfAbsent(api, depth);
+            }
+            depth++;
+        }
+
+        FrozenApiRegion[] regions = new FrozenApiRegion[depth];
+        Map<String, FrozenApiRegion> regionsByName = new HashMap<>();
+
+        FrozenApiRegion parent = null;
+        int index = 0;
+        for (ApiRegion apiRegion : apiRegions) {
+            FrozenApiRegion region = new FrozenApiRegion(definingDepths, apiRegion, parent);
+            regions[index++] = region;
+            regionsByName.put(region.getName(), region);
+            parent = region;
+        }
+
+        this.regions = Collections.unmodifiableList(Arrays.asList(regions));
+        this.regionsByName = regionsByName;
+        this.definingDepths = definingDepths;
+    }
+
+    /**
+     * Search and returns, if found, the region identified by the given name.
+     *
+     * @param regionName the name of the region to find
+     * @return the region identified by the passed name, null if not found or the name is null or empty
+     */
+    public FrozenApiRegion getByName(String regionName) {
+        if (regionName == null || regionName.isEmpty()) {
+            return null;
+        }
+
+        return regionsByName.get(regionName);
+    }
+
+    /**
+     * Search and returns, if found, the first region in the hierarchy which exports the given API package.
+     *
+     * @param api the API package to look for
+     * @return the first region in the hierarchy which exports the passed API package,
+     * null if not found or the API package is null or empty
+     */
+    public FrozenApiRegion getRegionOf(String api) {
+        if (api == null || api.isEmpty()) {
+            return null;
+        }
+
+        Integer depth = definingDepths.get(api);
+        return depth != null ? regions.get(depth) : null;
+    }
+
+    /**
+     * Checks if any region is present
+     *
+     * @return true if there is at least one declared region, false otherwise.
+     */
+    public boolean isEmpty() {
+        return regions.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<FrozenApiRegion> iterator() {
+        return regions.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<FrozenApiRegion> spliterator() {
+        return regions.spliterator();
+    }
+
+    /**
+     * Returns a sequential stream of the regions, in the hierarchy order.
+     *
+     * @return a sequential stream of the regions, in the hierarchy order.
+     */
+    public Stream<FrozenApiRegion> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the regions.
+     *
+     * @return a parallel stream of the regions.
+     */
+    public Stream<FrozenApiRegion> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+}
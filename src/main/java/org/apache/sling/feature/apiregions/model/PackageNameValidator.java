@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+/**
+ * Single pass, allocation free, Java package name validator:
+ * the first segment is made of lower case letters only, the following ones are Java identifiers
+ * (<code>[a-zA-Z_][a-zA-Z0-9_]*</code>), none of them can be a Java reserved keyword.
+ */
+final class PackageNameValidator {
+
+    private static final char PACKAGE_DELIM = '.';
+
+    // Java reserved keywords, grouped by their length
+    private static final String[][] KEYWORDS = {
+        {},
+        {},
+        { "do", "if" },
+        { "for", "new", "int", "try" },
+        { "byte", "case", "char", "else", "enum", "long", "this", "void" },
+        { "break", "catch", "class", "final", "float", "short", "super", "throw", "while" },
+        { "assert", "double", "import", "native", "public", "return", "static", "switch", "throws" },
+        { "boolean", "default", "extends", "finally", "package", "private" },
+        { "abstract", "continue", "strictfp", "volatile" },
+        { "interface", "protected", "transient" },
+        { "implements", "instanceof" },
+        {},
+        { "synchronized" }
+    };
+
+    private PackageNameValidator() {
+        // this class must not be instantiated from outside
+    }
+
+    static boolean isValid(String api) {
+        if (api == null) {
+            return false;
+        }
+
+        int length = api.length();
+        if (length == 0) {
+            return false;
+        }
+
+        boolean firstSegment = true;
+        int segmentStart = 0;
+
+        for (int i = 0; i < length; i++) {
+            char current = api.charAt(i);
+
+            if (PACKAGE_DELIM == current) {
+                if (i == segmentStart || isKeyword(api, segmentStart, i)) {
+                    return false;
+                }
+                firstSegment = false;
+                segmentStart = i + 1;
+            } else if (firstSegment) {
+                if (!isLowerCaseLetter(current)) {
+                    return false;
+                }
+            } else if (i == segmentStart) {
+                if (!isIdentifierStart(current)) {
+                    return false;
+                }
+            } else if (!isIdentifierPart(current)) {
+                return false;
+            }
+        }
+
+        // handles trailing delimiters as well
+        return segmentStart < length && !isKeyword(api, segmentStart, length);
+    }
+
+    private static boolean isKeyword(String api, int start, int end) {
+        int length = end - start;
+        if (length >= KEYWORDS.length) {
+            return false;
+        }
+
+        for (String keyword : KEYWORDS[length]) {
+            if (api.regionMatches(start, keyword, 0, length)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isLowerCaseLetter(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return isLowerCaseLetter(c) || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The lifetime of an API package across a sequence of <code>api-regions</code> versions,
+ * see {@link ApiRegionsEvolutionAnalyzer}.
+ *
+ * Versions are identified by their 0-based position in the analyzed sequence.
+ */
+public final class ApiPackageHistory {
+
+    private final String name;
+
+    private final int firstSeen;
+
+    private int lastSeen;
+
+    // region changes, stored as parallel arrays to keep records compact
+    private int[] changeVersions = new int[1];
+
+    private String[] changeRegions = new String[1];
+
+    private int changesCount;
+
+    ApiPackageHistory(String name, int version, String regionName) {
+        this.name = name;
+        this.firstSeen = version;
+        this.lastSeen = version;
+        changed(version, regionName);
+    }
+
+    /**
+     * Returns the API package name.
+     *
+     * @return the API package name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the first version exporting the API package.
+     *
+     * @return the first version exporting the API package
+     */
+    public int getFirstSeen() {
+        return firstSeen;
+    }
+
+    /**
+     * Returns the last version exporting the API package.
+     *
+     * @return the last version exporting the API package
+     */
+    public int getLastSeen() {
+        return lastSeen;
+    }
+
+    /**
+     * Returns the regions defining the API package, keyed by the version where the definition changed.
+     *
+     * A null region means that the API package was not exported anymore starting from that version.
+     *
+     * @return the regions defining the API package, keyed by version
+     */
+    public SortedMap<Integer, String> getRegionChanges() {
+        SortedMap<Integer, String> regionChanges = new TreeMap<>();
+        for (int i = 0; i < changesCount; i++) {
+            regionChanges.put(changeVersions[i], changeRegions[i]);
+        }
+        return Collections.unmodifiableSortedMap(regionChanges);
+    }
+
+    String getCurrentRegion() {
+        return changeRegions[changesCount - 1];
+    }
+
+    void seen(int version, String regionName) {
+        if (lastSeen < version - 1) {
+            // not exported by the versions in between
+            changed(lastSeen + 1, null);
+        }
+        if (getCurrentRegion() != regionName) {
+            changed(version, regionName);
+        }
+        lastSeen = version;
+    }
+
+    void completed(int versionsCount) {
+        if (lastSeen < versionsCount - 1) {
+            changed(lastSeen + 1, null);
+        }
+        if (changesCount < changeVersions.length) {
+            changeVersions = Arrays.copyOf(changeVersions, changesCount);
+            changeRegions = Arrays.copyOf(changeRegions, changesCount);
+        }
+    }
+
+    private void changed(int version, String regionName) {
+        if (changesCount == changeVersions.length) {
+            changeVersions = Arrays.copyOf(changeVersions, changesCount * 2);
+            changeRegions = Arrays.copyOf(changeRegions, changesCount * 2);
+        }
+        changeVersions[changesCount] = version;
+        changeRegions[changesCount] = regionName;
+        changesCount++;
+    }
+
+    @Override
+    public String toString() {
+        return "ApiPackageHistory [name=" + name
+                + ", firstSeen=" + firstSeen
+                + ", lastSeen=" + lastSeen
+                + ", regionChanges=" + getRegionChanges()
+                + "]";
+    }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+
+/**
+ * Matches API packages against a set of glob patterns, compiled once into a single automaton.
+ *
+ * Patterns are evaluated on package segments:
+ * <ul>
+ * <li><code>**</code> matches any number of segments, including none;</li>
+ * <li><code>*</code> matches exactly one segment;</li>
+ * <li>a segment containing <code>*</code>, i.e. <code>impl*</code>, matches a single segment with any characters in place of the wildcard;</li>
+ * <li>any other segment matches itself.</li>
+ * </ul>
+ * i.e. <code>org.apache.felix.*</code> matches <code>org.apache.felix.inventory</code> but not <code>org.apache.felix.scr.info</code>,
+ * <code>com.acme.**.impl</code> matches both <code>com.acme.impl</code> and <code>com.acme.foo.bar.impl</code>.
+ *
+ * Patterns sharing a prefix share the same states, so every package is matched against all the patterns in a single walk.
+ * Instances are immutable and can be shared across threads.
+ */
+public final class ApiPackageMatcher {
+
+    private final Node root = new Node();
+
+    private ApiPackageMatcher() {
+        // use the compile methods
+    }
+
+    /**
+     * Compiles the given patterns.
+     *
+     * @param patterns the package patterns
+     * @return the compiled matcher
+     */
+    public static ApiPackageMatcher compile(String...patterns) {
+        requireNonNull(patterns, "Impossible to compile null patterns");
+        return compile(Arrays.asList(patterns));
+    }
+
+    /**
+     * Compiles the given patterns.
+     *
+     * @param patterns the package patterns
+     * @return the compiled matcher
+     */
+    public static ApiPackageMatcher compile(Collection<String> patterns) {
+        requireNonNull(patterns, "Impossible to compile null patterns");
+
+        ApiPackageMatcher matcher = new ApiPackageMatcher();
+        for (String pattern : patterns) {
+            matcher.add(pattern);
+        }
+        return matcher;
+    }
+
+    private void add(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Impossible to compile a null or empty pattern");
+        }
+
+        Node current = root;
+        for (String segment : pattern.split("\\.", -1)) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Pattern '" + pattern + "' contains an empty segment");
+            }
+
+            if ("**".equals(segment)) {
+                if (current.anySegments == null) {
+                    current.anySegments = new Node();
+                    current.anySegments.loops = true;
+                }
+                current = current.anySegments;
+            } else if ("*".equals(segment)) {
+                if (current.oneSegment == null) {
+                    current.oneSegment = new Node();
+                }
+                current = current.oneSegment;
+            } else if (segment.indexOf('*') >= 0) {
+                Node next = null;
+                for (SegmentGlob glob : current.globs) {
+                    if (glob.glob.equals(segment)) {
+                        next = glob.next;
+                    }
+                }
+                if (next == null) {
+                    next = new Node();
+                    current.globs.add(new SegmentGlob(segment, next));
+                }
+                current = next;
+            } else {
+                current = current.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        current.accepting = true;
+    }
+
+    /**
+     * Checks if the given API package matches at least one of the patterns.
+     *
+     * @param api the API package to check
+     * @return true if the API package matches at least one of the patterns, false otherwise.
+     */
+    public boolean matches(String api) {
+        if (api == null || api.isEmpty()) {
+            return false;
+        }
+
+        List<Node> active = new ArrayList<>();
+        List<Node> next = new ArrayList<>();
+        activate(active, root);
+
+        int start = 0;
+        while (!active.isEmpty() && start <= api.length()) {
+            int end = api.indexOf('.', start);
+            if (end < 0) {
+                end = api.length();
+            }
+            String segment = api.substring(start, end);
+
+            next.clear();
+            for (Node node : active) {
+                node.step(segment, next);
+            }
+
+            List<Node> swap = active;
+            active = next;
+            next = swap;
+            start = end + 1;
+        }
+
+        for (Node node : active) {
+            if (node.accepting) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the API packages, exported by any of the given regions, matching at least one of the patterns.
+     *
+     * @param apiRegions the regions to query
+     * @return the matching API packages, mapped to the first region in the hierarchy which exports them,
+     * in the hierarchy order
+     */
+    public Map<String, ApiRegion> match(ApiRegions apiRegions) {
+        requireNonNull(apiRegions, "Impossible to query null api-regions");
+
+        Map<String, ApiRegion> matches = new LinkedHashMap<>();
+        for (ApiRegion apiRegion : apiRegions) {
+            collect(apiRegion, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the API packages visible from the given region, its own plus the inherited ones,
+     * matching at least one of the patterns.
+     *
+     * @param apiRegion the region to query
+     * @return the matching API packages, mapped to the first region in the hierarchy which exports them,
+     * from the root region down to the given one
+     */
+    public Map<String, ApiRegion> match(ApiRegion apiRegion) {
+        requireNonNull(apiRegion, "Impossible to query a null region");
+
+        List<ApiRegion> hierarchy = new ArrayList<>();
+        for (ApiRegion current = apiRegion; current != null; current = current.getParent()) {
+            hierarchy.add(current);
+        }
+
+        Map<String, ApiRegion> matches = new LinkedHashMap<>();
+        for (int i = hierarchy.size() - 1; i >= 0; i--) {
+            collect(hierarchy.get(i), matches);
+        }
+        return matches;
+    }
+
+    private void collect(ApiRegion apiRegion, Map<String, ApiRegion> matches) {
+        for (String api : apiRegion.getExports()) {
+            // regions are visited from the root, the first one exporting a package defines it
+            if (!matches.containsKey(api) && matches(api)) {
+                matches.put(api, apiRegion);
+            }
+        }
+    }
+
+    private static void activate(List<Node> active, Node node) {
+        if (active.contains(node)) {
+            return;
+        }
+        active.add(node);
+        if (node.anySegments != null) {
+            // '**' matches no segments as well
+            activate(active, node.anySegments);
+        }
+    }
+
+    // a state of the automaton, reached once the pattern segments from the root to here matched
+    private static final class Node {
+
+        final Map<String, Node> literals = new HashMap<>();
+
+        final List<SegmentGlob> globs = new ArrayList<>();
+
+        Node oneSegment;
+
+        Node anySegments;
+
+        // reached via '**', which keeps consuming segments
+        boolean loops;
+
+        boolean accepting;
+
+        void step(String segment, List<Node> next) {
+            if (loops) {
+                activate(next, this);
+            }
+            Node literal = literals.get(segment);
+            if (literal != null) {
+                activate(next, literal);
+            }
+            if (oneSegment != null) {
+                activate(next, oneSegment);
+            }
+            for (SegmentGlob glob : globs) {
+                if (glob.matches(segment)) {
+                    activate(next, glob.next);
+                }
+            }
+        }
+
+    }
+
+    private static final class SegmentGlob {
+
+        final String glob;
+
+        final Node next;
+
+        SegmentGlob(String glob, Node next) {
+            this.glob = glob;
+            this.next = next;
+        }
+
+        boolean matches(String segment) {
+            return matches(segment, 0, 0);
+        }
+
+        private boolean matches(String segment, int s, int g) {
+            while (g < glob.length()) {
+                char c = glob.charAt(g);
+                if (c == '*') {
+                    for (int i = s; i <= segment.length(); i++) {
+                        if (matches(segment, i, g + 1)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                if (s == segment.length() || segment.charAt(s) != c) {
+                    return false;
+                }
+                s++;
+                g++;
+            }
+            return s == segment.length();
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+
+/**
+ * A lazily evaluated set of API packages, built on top of regions and combined with set algebra operations.
+ *
+ * Views are not copies: {@link #contains(String)} and iteration are evaluated against the underlying regions
+ * on every call, so they reflect later changes of the regions.
+ * Use {@link #materialize()} to take an immutable, compact, snapshot.
+ */
+public abstract class ApiPackageSet implements Iterable<String> {
+
+    ApiPackageSet() {
+        // only the implementations in this package are allowed
+    }
+
+    /**
+     * Creates a view over the effective API packages of the given region, i.e. its own plus the inherited ones.
+     *
+     * @param apiRegion the region
+     * @return the effective API packages view
+     */
+    public static ApiPackageSet of(ApiRegion apiRegion) {
+        requireNonNull(apiRegion, "Impossible to create a view over a null region");
+
+        return new ApiPackageSet() {
+
+            @Override
+            public boolean contains(String api) {
+                return apiRegion.contains(api);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+
+                    // next region in the hierarchy whose exports still have to be visited
+                    private ApiRegion region = apiRegion;
+
+                    private Iterator<String> current;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (current == null || !current.hasNext()) {
+                            if (region == null) {
+                                return false;
+                            }
+
+                            // a package exported more than once across the hierarchy is reported by the topmost region only
+                            ApiRegion parent = region.getParent();
+                            current = parent != null
+                                      ? filter(region.getExports().iterator(), api -> !parent.contains(api))
+                                      : region.getExports().iterator();
+                            region = parent;
+                        }
+
+                        return true;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return current.next();
+                    }
+
+                };
+            }
+
+        };
+    }
+
+    /**
+     * Creates a view over the API packages stored only in the given region, ignoring the inherited ones.
+     *
+     * @param apiRegion the region
+     * @return the region own API packages view
+     */
+    public static ApiPackageSet exportsOf(ApiRegion apiRegion) {
+        requireNonNull(apiRegion, "Impossible to create a view over a null region");
+
+        return new ApiPackageSet() {
+
+            @Override
+            public boolean contains(String api) {
+                return apiRegion.exports(api);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return apiRegion.getExports().iterator();
+            }
+
+        };
+    }
+
+    /**
+     * Checks if the given API package belongs to this set.
+     *
+     * @param api the API package to check
+     * @return true if the API package belongs to this set, false otherwise.
+     */
+    public abstract boolean contains(String api);
+
+    /**
+     * Iterates over the API packages of this set, each one reported once.
+     */
+    @Override
+    public abstract Iterator<String> iterator();
+
+    /**
+     * Creates a view over the API packages belonging to this set or to the other one.
+     *
+     * @param other the other set
+     * @return the union view
+     */
+    public ApiPackageSet union(ApiPackageSet other) {
+        requireNonNull(other, "Impossible to unite with a null set");
+
+        ApiPackageSet self = this;
+        return new ApiPackageSet() {
+
+            @Override
+            public boolean contains(String api) {
+                return self.contains(api) || other.contains(api);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<String> otherOnly = filter(other.iterator(), api -> !self.contains(api));
+                Iterator<String> selfAll = self.iterator();
+                return new Iterator<String>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return selfAll.hasNext() || otherOnly.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return selfAll.hasNext() ? selfAll.next() : otherOnly.next();
+                    }
+
+                };
+            }
+
+        };
+    }
+
+    /**
+     * Creates a view over the API packages belonging to both this set and the other one.
+     *
+     * @param other the other set
+     * @return the intersection view
+     */
+    public ApiPackageSet intersection(ApiPackageSet other) {
+        requireNonNull(other, "Impossible to intersect with a null set");
+
+        ApiPackageSet self = this;
+        return new ApiPackageSet() {
+
+            @Override
+            public boolean contains(String api) {
+                return self.contains(api) && other.contains(api);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return filter(self.iterator(), other::contains);
+            }
+
+        };
+    }
+
+    /**
+     * Creates a view over the API packages belonging to this set but not to the other one.
+     *
+     * @param other the other set
+     * @return the difference view
+     */
+    public ApiPackageSet difference(ApiPackageSet other) {
+        requireNonNull(other, "Impossible to subtract a null set");
+
+        ApiPackageSet self = this;
+        return new ApiPackageSet() {
+
+            @Override
+            public boolean contains(String api) {
+                return self.contains(api) && !other.contains(api);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return filter(self.iterator(), api -> !other.contains(api));
+            }
+
+        };
+    }
+
+    /**
+     * Evaluates this view and stores its API packages in an immutable, compact, set.
+     *
+     * @return the materialized set
+     */
+    public FrozenApiPackageSet materialize() {
+        List<String> apis = new ArrayList<>();
+        for (String api : this) {
+            apis.add(api);
+        }
+
+        String[] sorted = apis.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return new FrozenApiPackageSet(sorted);
+    }
+
+    private static Iterator<String> filter(Iterator<String> source, Predicate<String> predicate) {
+        return new Iterator<String>() {
+
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && source.hasNext()) {
+                    String candidate = source.next();
+                    if (predicate.test(candidate)) {
+                        next = candidate;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String current = next;
+                next = null;
+                return current;
+            }
+
+        };
+    }
+
+}
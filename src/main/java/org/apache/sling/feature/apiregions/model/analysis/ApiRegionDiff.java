@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes of the API packages defined by a single region, see {@link ApiRegionsDiffer}.
+ */
+public final class ApiRegionDiff {
+
+    private final String name;
+
+    private final List<String> addedExports = new ArrayList<>();
+
+    private final List<String> removedExports = new ArrayList<>();
+
+    private final Map<String, String> movedExports = new LinkedHashMap<>();
+
+    ApiRegionDiff(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the region name.
+     *
+     * @return the region name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the API packages defined by this region which were not exported by any region before.
+     *
+     * @return the added API packages
+     */
+    public List<String> getAddedExports() {
+        return Collections.unmodifiableList(addedExports);
+    }
+
+    /**
+     * Returns the API packages defined by this region before which are not exported by any region anymore.
+     *
+     * @return the removed API packages
+     */
+    public List<String> getRemovedExports() {
+        return Collections.unmodifiableList(removedExports);
+    }
+
+    /**
+     * Returns the API packages now defined by this region which were defined by a different region before.
+     *
+     * @return the moved API packages, mapped to the name of the region which defined them before
+     */
+    public Map<String, String> getMovedExports() {
+        return Collections.unmodifiableMap(movedExports);
+    }
+
+    /**
+     * Checks if the region did not change.
+     *
+     * @return true if there are no added, removed or moved API packages, false otherwise.
+     */
+    public boolean isEmpty() {
+        return addedExports.isEmpty() && removedExports.isEmpty() && movedExports.isEmpty();
+    }
+
+    void added(String api) {
+        addedExports.add(api);
+    }
+
+    void removed(String api) {
+        removedExports.add(api);
+    }
+
+    void moved(String api, String previousRegionName) {
+        movedExports.put(api, previousRegionName);
+    }
+
+    @Override
+    public String toString() {
+        return "ApiRegionDiff [name=" + name
+                + ", added=" + addedExports
+                + ", removed=" + removedExports
+                + ", moved=" + movedExports
+                + "]";
+    }
+
+}
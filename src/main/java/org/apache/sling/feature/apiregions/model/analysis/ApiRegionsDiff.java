@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The differences between two <code>api-regions</code>, see {@link ApiRegionsDiffer}.
+ */
+public final class ApiRegionsDiff {
+
+    private final List<String> addedRegions = new ArrayList<>();
+
+    private final List<String> removedRegions = new ArrayList<>();
+
+    private final Map<String, ApiRegionDiff> regionDiffs = new LinkedHashMap<>();
+
+    ApiRegionsDiff() {
+        // created by the ApiRegionsDiffer only
+    }
+
+    /**
+     * Returns the names of the regions which did not exist before.
+     *
+     * @return the names of the added regions, in the hierarchy order
+     */
+    public List<String> getAddedRegions() {
+        return Collections.unmodifiableList(addedRegions);
+    }
+
+    /**
+     * Returns the names of the regions which do not exist anymore.
+     *
+     * @return the names of the removed regions, in the previous hierarchy order
+     */
+    public List<String> getRemovedRegions() {
+        return Collections.unmodifiableList(removedRegions);
+    }
+
+    /**
+     * Returns the API packages changes of the regions with at least one change.
+     *
+     * @return the regions changes
+     */
+    public Collection<ApiRegionDiff> getRegionDiffs() {
+        return Collections.unmodifiableCollection(regionDiffs.values());
+    }
+
+    /**
+     * Returns the API packages changes of the given region.
+     *
+     * @param regionName the region name
+     * @return the region changes, null if the region did not change or is unknown
+     */
+    public ApiRegionDiff getRegionDiff(String regionName) {
+        return regionDiffs.get(regionName);
+    }
+
+    /**
+     * Checks if the two <code>api-regions</code> are equivalent.
+     *
+     * @return true if no regions and no API packages changed, false otherwise.
+     */
+    public boolean isEmpty() {
+        return addedRegions.isEmpty() && removedRegions.isEmpty() && regionDiffs.isEmpty();
+    }
+
+    void addedRegion(String regionName) {
+        addedRegions.add(regionName);
+    }
+
+    void removedRegion(String regionName) {
+        removedRegions.add(regionName);
+    }
+
+    ApiRegionDiff regionDiff(String regionName) {
+        return regionDiffs.computeIfAbsent(regionName, ApiRegionDiff::new);
+    }
+
+    @Override
+    public String toString() {
+        return "ApiRegionsDiff [addedRegions=" + addedRegions
+                + ", removedRegions=" + removedRegions
+                + ", regionDiffs=" + regionDiffs.values()
+                + "]";
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+
+/**
+ * Computes the differences between two <code>api-regions</code>, i.e. two versions of the same Feature.
+ *
+ * An API package is considered defined by the first region in the hierarchy which exports it,
+ * a package defined by a different region than before is reported as moved.
+ * The comparison runs in linear time on the total number of exported API packages,
+ * relying on the constant time {@link ApiRegions#getRegionOf(String)} lookup.
+ */
+public final class ApiRegionsDiffer {
+
+    private ApiRegionsDiffer() {
+        // this class must not be instantiated from outside
+    }
+
+    /**
+     * Compares the given <code>api-regions</code>.
+     *
+     * @param previous the previous <code>api-regions</code>
+     * @param current the current <code>api-regions</code>
+     * @return the differences from the previous to the current <code>api-regions</code>
+     */
+    public static ApiRegionsDiff diff(ApiRegions previous, ApiRegions current) {
+        requireNonNull(previous, "Impossible to compare null previous api-regions");
+        requireNonNull(current, "Impossible to compare null current api-regions");
+
+        ApiRegionsDiff diff = new ApiRegionsDiff();
+
+        for (ApiRegion currentRegion : current) {
+            String regionName = currentRegion.getName();
+            if (previous.getByName(regionName) == null) {
+                diff.addedRegion(regionName);
+            }
+
+            for (String api : currentRegion.getExports()) {
+                if (current.getRegionOf(api) != currentRegion) {
+                    // re-exported, already defined by an ancestor
+                    continue;
+                }
+
+                ApiRegion previousRegion = previous.getRegionOf(api);
+                if (previousRegion == null) {
+                    diff.regionDiff(regionName).added(api);
+                } else if (!regionName.equals(previousRegion.getName())) {
+                    diff.regionDiff(regionName).moved(api, previousRegion.getName());
+                }
+            }
+        }
+
+        for (ApiRegion previousRegion : previous) {
+            String regionName = previousRegion.getName();
+            if (current.getByName(regionName) == null) {
+                diff.removedRegion(regionName);
+            }
+
+            for (String api : previousRegion.getExports()) {
+                if (previous.getRegionOf(api) == previousRegion && current.getRegionOf(api) == null) {
+                    diff.regionDiff(regionName).removed(api);
+                }
+            }
+        }
+
+        return diff;
+    }
+
+}
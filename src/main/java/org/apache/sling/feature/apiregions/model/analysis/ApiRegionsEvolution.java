@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The evolution of the API packages across a sequence of <code>api-regions</code> versions,
+ * see {@link ApiRegionsEvolutionAnalyzer}.
+ */
+public final class ApiRegionsEvolution {
+
+    private final int versionsCount;
+
+    private final Map<String, ApiPackageHistory> histories;
+
+    ApiRegionsEvolution(int versionsCount, Map<String, ApiPackageHistory> histories) {
+        this.versionsCount = versionsCount;
+        this.histories = histories;
+    }
+
+    /**
+     * Returns the number of analyzed versions.
+     *
+     * @return the number of analyzed versions
+     */
+    public int getVersionsCount() {
+        return versionsCount;
+    }
+
+    /**
+     * Returns the history of the given API package.
+     *
+     * @param api the API package
+     * @return the API package history, null if the API package was never exported
+     */
+    public ApiPackageHistory getPackageHistory(String api) {
+        return histories.get(api);
+    }
+
+    /**
+     * Returns the history of all the API packages exported at least once, in no particular order.
+     *
+     * @return the API packages histories
+     */
+    public Collection<ApiPackageHistory> getPackageHistories() {
+        return Collections.unmodifiableCollection(histories.values());
+    }
+
+}
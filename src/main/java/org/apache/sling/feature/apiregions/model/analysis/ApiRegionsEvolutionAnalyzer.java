@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+
+/**
+ * Tracks the lifetime of API packages across a sequence of <code>api-regions</code> versions, oldest first.
+ *
+ * Versions are consumed one at a time and are not retained, so callers can parse them lazily:
+ * memory is proportional to the number of distinct API packages and of their region changes,
+ * not to the number of versions.
+ * As in {@link ApiRegionsDiffer}, an API package is considered defined by the first region in the hierarchy which exports it.
+ */
+public final class ApiRegionsEvolutionAnalyzer {
+
+    private ApiRegionsEvolutionAnalyzer() {
+        // this class must not be instantiated from outside
+    }
+
+    /**
+     * Analyzes the given <code>api-regions</code> versions, consuming the stream sequentially.
+     *
+     * @param versions the <code>api-regions</code> versions, oldest first
+     * @return the API packages evolution
+     */
+    public static ApiRegionsEvolution analyze(Stream<ApiRegions> versions) {
+        requireNonNull(versions, "Impossible to analyze a null stream of api-regions");
+        return analyze(versions.iterator());
+    }
+
+    /**
+     * Analyzes the given <code>api-regions</code> versions.
+     *
+     * @param versions the <code>api-regions</code> versions, oldest first
+     * @return the API packages evolution
+     */
+    public static ApiRegionsEvolution analyze(Iterator<ApiRegions> versions) {
+        requireNonNull(versions, "Impossible to analyze a null iterator of api-regions");
+
+        Map<String, ApiPackageHistory> histories = new HashMap<>();
+        // region names are shared across histories, and compared by identity
+        Map<String, String> regionNames = new HashMap<>();
+
+        int version = 0;
+        while (versions.hasNext()) {
+            ApiRegions apiRegions = requireNonNull(versions.next(), "Impossible to analyze null api-regions");
+
+            for (ApiRegion apiRegion : apiRegions) {
+                String regionName = regionNames.computeIfAbsent(apiRegion.getName(), name -> name);
+
+                for (String api : apiRegion.getExports()) {
+                    if (apiRegions.getRegionOf(api) != apiRegion) {
+                        // re-exported, already defined by an ancestor
+                        continue;
+                    }
+
+                    ApiPackageHistory history = histories.get(api);
+                    if (history == null) {
+                        histories.put(api, new ApiPackageHistory(api, version, regionName));
+                    } else {
+                        history.seen(version, regionName);
+                    }
+                }
+            }
+
+            version++;
+        }
+
+        for (ApiPackageHistory history : histories.values()) {
+            history.completed(version);
+        }
+
+        return new ApiRegionsEvolution(version, histories);
+    }
+
+}
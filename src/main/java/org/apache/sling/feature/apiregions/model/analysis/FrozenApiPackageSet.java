@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An immutable set of API packages, see {@link ApiPackageSet#materialize()}.
+ *
+ * API packages are stored in a sorted array, looked up via binary search.
+ */
+public final class FrozenApiPackageSet extends ApiPackageSet {
+
+    private final String[] apis;
+
+    FrozenApiPackageSet(String[] sortedApis) {
+        this.apis = sortedApis;
+    }
+
+    @Override
+    public boolean contains(String api) {
+        return api != null && Arrays.binarySearch(apis, api) >= 0;
+    }
+
+    /**
+     * Iterates over the API packages, sorted lexicographically.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return asList().iterator();
+    }
+
+    /**
+     * Returns the number of API packages in this set.
+     *
+     * @return the number of API packages in this set
+     */
+    public int size() {
+        return apis.length;
+    }
+
+    /**
+     * Checks if this set is empty.
+     *
+     * @return true if this set does not contain any API package, false otherwise.
+     */
+    public boolean isEmpty() {
+        return apis.length == 0;
+    }
+
+    /**
+     * Returns the API packages of this set, sorted lexicographically.
+     *
+     * @return the sorted API packages
+     */
+    public List<String> asList() {
+        return Collections.unmodifiableList(Arrays.asList(apis));
+    }
+
+    @Override
+    public FrozenApiPackageSet materialize() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return asList().toString();
+    }
+
+}
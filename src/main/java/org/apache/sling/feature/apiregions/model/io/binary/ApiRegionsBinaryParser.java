@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.binary;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+
+/**
+ * <code>api-regions</code> binary snapshot format parser implementation,
+ * see {@link ApiRegionsBinarySerializer}.
+ *
+ * Snapshots are untrusted input: declared sizes are bounded while reading
+ * and package names are validated like the ones read from JSON.
+ */
+public final class ApiRegionsBinaryParser implements BinaryConstants {
+
+    private static final int INITIAL_TABLE_CAPACITY = 1024;
+
+    private ApiRegionsBinaryParser() {
+        // this class must not be instantiated from outside
+    }
+
+    /**
+     * Parses an <code>api-regions</code> binary snapshot file, mapping it to the related in-memory representation.
+     *
+     * The file is read at once and decoded from memory.
+     *
+     * @param snapshotFile the <code>api-regions</code> binary snapshot file
+     * @return the related in-memory representation of the <code>api-regions</code>
+     * @throws IOException if any error occurs while reading the file, or the file is not a valid snapshot
+     */
+    public static ApiRegions parseApiRegions(Path snapshotFile) throws IOException {
+        requireNonNull(snapshotFile, "Impossible to extract api-regions from a null file");
+        return parseApiRegions(ByteBuffer.wrap(Files.readAllBytes(snapshotFile)));
+    }
+
+    /**
+     * Parses an <code>api-regions</code> binary snapshot, from the current position of the given buffer,
+     * mapping it to the related in-memory representation.
+     *
+     * The buffer position is moved to the end of the snapshot.
+     *
+     * @param buffer the buffer holding the <code>api-regions</code> binary snapshot
+     * @return the related in-memory representation of the <code>api-regions</code>
+     * @throws IOException if the buffer does not hold a valid snapshot
+     */
+    public static ApiRegions parseApiRegions(ByteBuffer buffer) throws IOException {
+        requireNonNull(buffer, "Impossible to extract api-regions from a null buffer");
+
+        try {
+            return parseApiRegions(new BufferInput(buffer));
+        } catch (BufferUnderflowException e) {
+            EOFException eof = new EOFException("Truncated api-regions binary snapshot");
+            eof.initCause(e);
+            throw eof;
+        }
+    }
+
+    /**
+     * Parses an <code>api-regions</code> binary snapshot, mapping it to the related in-memory representation.
+     *
+     * The stream is read but not closed, and never past the end of the snapshot,
+     * so any following content can be read from the same stream;
+     * the stream is read byte by byte, callers reading from files or sockets should pass a buffered one
+     * or use {@link #parseApiRegions(Path)}.
+     *
+     * @param input the <code>api-regions</code> binary snapshot stream
+     * @return the related in-memory representation of the <code>api-regions</code>
+     * @throws IOException if any error occurs while reading the stream, or the stream is not a valid snapshot
+     */
+    public static ApiRegions parseApiRegions(InputStream input) throws IOException {
+        requireNonNull(input, "Impossible to extract api-regions from a null stream");
+        return parseApiRegions(new StreamInput(input));
+    }
+
+    private static ApiRegions parseApiRegions(SnapshotInput data) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (MAGIC[i] != (byte) data.read()) {
+                throw new StreamCorruptedException("Input stream is not an api-regions binary snapshot");
+            }
+        }
+
+        int version = data.read();
+        if (VERSION != version) {
+            throw new StreamCorruptedException("Unsupported api-regions binary snapshot version " + version);
+        }
+
+        // sizes come from the input: the table grows while entries are actually read
+        int tableSize = readVarint(data);
+        String[] segments = new String[Math.min(tableSize, INITIAL_TABLE_CAPACITY)];
+        for (int i = 0; i < tableSize; i++) {
+            if (i == segments.length) {
+                segments = Arrays.copyOf(segments, (int) Math.min(tableSize, segments.length * 2L));
+            }
+            segments[i] = readString(data);
+        }
+
+        ApiRegions apiRegions = new ApiRegions();
+        StringBuilder api = new StringBuilder();
+
+        int regionsCount = readVarint(data);
+        for (int regionIndex = 0; regionIndex < regionsCount; regionIndex++) {
+            String regionName = readString(data);
+
+            // regions hierarchy is given by the declaration order, the parent can only be the previous one
+            int parentIndex = readVarint(data) - 1;
+            if (parentIndex != regionIndex - 1) {
+                throw new StreamCorruptedException("Region '" + regionName + "' declares parent index " + parentIndex
+                                                   + ", expected " + (regionIndex - 1));
+            }
+
+            ApiRegion apiRegion = apiRegions.addNew(regionName);
+
+            int exportsCount = readVarint(data);
+            for (int exportIndex = 0; exportIndex < exportsCount; exportIndex++) {
+                api.setLength(0);
+
+                int segmentsCount = readVarint(data);
+                for (int segmentIndex = 0; segmentIndex < segmentsCount; segmentIndex++) {
+                    if (segmentIndex > 0) {
+                        api.append(PACKAGE_DELIM);
+                    }
+
+                    int segment = readVarint(data);
+                    if (segment >= segments.length) {
+                        throw new StreamCorruptedException("Segment index " + segment + " out of the strings table");
+                    }
+                    api.append(segments[segment]);
+                }
+
+                apiRegion.add(api.toString());
+            }
+        }
+
+        return apiRegions;
+    }
+
+    private static String readString(SnapshotInput data) throws IOException {
+        int length = readVarint(data);
+        if (length > MAX_STRING_LENGTH) {
+            throw new StreamCorruptedException("String length " + length + " exceeds the maximum allowed " + MAX_STRING_LENGTH);
+        }
+        return data.readString(length);
+    }
+
+    private static int readVarint(SnapshotInput data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int current = data.read();
+            if (current < 0) {
+                throw new EOFException();
+            }
+
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint in api-regions binary snapshot");
+    }
+
+    // the snapshot source: a stream read byte by byte, or a buffer decoded in place
+    private interface SnapshotInput {
+
+        // next unsigned byte, -1 at the end of the input
+        int read() throws IOException;
+
+        String readString(int length) throws IOException;
+
+    }
+
+    private static final class StreamInput implements SnapshotInput {
+
+        private final DataInputStream data;
+
+        public StreamInput(InputStream input) {
+            data = new DataInputStream(input);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return data.read();
+        }
+
+        @Override
+        public String readString(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            data.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+    }
+
+    private static final class BufferInput implements SnapshotInput {
+
+        private final ByteBuffer buffer;
+
+        public BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public String readString(int length) {
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+
+            String value;
+            if (buffer.hasArray()) {
+                // decoded straight from the backing array
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+
+    }
+
+}
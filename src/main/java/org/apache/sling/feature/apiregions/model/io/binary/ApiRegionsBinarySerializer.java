@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.binary;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+
+/**
+ * <code>api-regions</code> binary snapshot format serializer implementation.
+ *
+ * Package names are split in segments stored once in a shared string table,
+ * exports are then written as sequences of segment indexes.
+ */
+public final class ApiRegionsBinarySerializer implements BinaryConstants {
+
+    private ApiRegionsBinarySerializer() {
+        // this class must not be instantiated from outside
+    }
+
+    /**
+     * Serializes the input <code>api-regions</code> to the target stream.
+     *
+     * The stream is flushed but not closed.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param output the target stream where serializing the <code>api-regions</code>
+     * @throws IOException if any error occurs while writing to the stream
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, OutputStream output) throws IOException {
+        requireNonNull(apiRegions, "Impossible to serialize null api-regions");
+        requireNonNull(output, "Impossible to serialize api-regions to a null stream");
+
+        // the string table has to precede the regions, collect it while encoding them
+        Map<String, Integer> segments = new HashMap<>();
+        ByteArrayOutputStream segmentsTable = new ByteArrayOutputStream();
+        ByteArrayOutputStream regionsTable = new ByteArrayOutputStream();
+
+        int regionsCount = 0;
+        for (ApiRegion apiRegion : apiRegions) {
+            writeString(regionsTable, apiRegion.getName());
+            writeVarint(regionsTable, apiRegion.getParent() != null ? regionsCount : 0);
+
+            writeVarint(regionsTable, (int) apiRegion.exportsStream().count());
+
+            for (String api : apiRegion.getExports()) {
+                writeVarint(regionsTable, countSegments(api));
+
+                int segmentStart = 0;
+                int segmentEnd;
+                do {
+                    segmentEnd = api.indexOf(PACKAGE_DELIM, segmentStart);
+                    String segment = api.substring(segmentStart, segmentEnd < 0 ? api.length() : segmentEnd);
+
+                    Integer index = segments.get(segment);
+                    if (index == null) {
+                        index = segments.size();
+                        segments.put(segment, index);
+                        writeString(segmentsTable, segment);
+                    }
+                    writeVarint(regionsTable, index);
+
+                    segmentStart = segmentEnd + 1;
+                } while (segmentEnd >= 0);
+            }
+
+            regionsCount++;
+        }
+
+        OutputStream target = new BufferedOutputStream(output);
+        target.write(MAGIC);
+        target.write(VERSION);
+        writeVarint(target, segments.size());
+        segmentsTable.writeTo(target);
+        writeVarint(target, regionsCount);
+        regionsTable.writeTo(target);
+        target.flush();
+    }
+
+    private static int countSegments(String api) {
+        int segments = 1;
+        for (int i = 0; i < api.length(); i++) {
+            if (PACKAGE_DELIM == api.charAt(i)) {
+                segments++;
+            }
+        }
+        return segments;
+    }
+
+    private static void writeString(OutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_LENGTH) {
+            throw new IllegalArgumentException("'" + value.substring(0, 32) + "...' exceeds the maximum length of " + MAX_STRING_LENGTH + " UTF-8 bytes");
+        }
+        writeVarint(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeVarint(OutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.binary;
+
+/**
+ * The <code>api-regions</code> binary snapshot layout, all numbers are unsigned varints:
+ *
+ * <pre>
+ * magic        'A' 'P' 'I' 'R'
+ * version      1 byte
+ * segments     count, then for each package name segment: UTF-8 length, UTF-8 bytes
+ * regions      count, then for each region:
+ *                name UTF-8 length, UTF-8 bytes
+ *                parent index + 1, 0 for the root region
+ *                exports count, then for each export: segments count, then each segment index
+ * </pre>
+ */
+interface BinaryConstants {
+
+    public static final byte[] MAGIC = { 'A', 'P', 'I', 'R' };
+
+    public static final int VERSION = 1;
+
+    public static final char PACKAGE_DELIM = '.';
+
+    // upper bound of region names and package segments UTF-8 lengths, protects readers from corrupted input
+    public static final int MAX_STRING_LENGTH = 0xFFFF;
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import org.apache.sling.feature.ArtifactId;
+import org.apache.sling.feature.Extension;
+import org.apache.sling.feature.Feature;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONParser.Engine;
+
+/**
+ * Parses the <code>api-regions</code> of many Features, or Extensions, concurrently.
+ *
+ * Each item is parsed as an independent task sharing the {@link ApiRegionsJSONParser} infrastructure,
+ * a failure parsing one item does not affect the others.
+ */
+public final class ApiRegionsJSONBatchParser {
+
+    private ApiRegionsJSONBatchParser() {
+        // this class must not be instantiated from outside
+    }
+
+    /**
+     * The outcome of parsing the <code>api-regions</code> of a single item.
+     */
+    public static final class Result {
+
+        private final ApiRegions apiRegions;
+
+        private final Throwable failure;
+
+        Result(ApiRegions apiRegions, Throwable failure) {
+            this.apiRegions = apiRegions;
+            this.failure = failure;
+        }
+
+        /**
+         * Returns the parsed <code>api-regions</code>, null if the parsing failed
+         * or the Feature does not have the <code>api-regions</code> extension.
+         *
+         * @return the parsed <code>api-regions</code>, null if not available.
+         */
+        public ApiRegions getApiRegions() {
+            return apiRegions;
+        }
+
+        /**
+         * Returns the error which made the parsing fail, null if the parsing succeeded.
+         *
+         * @return the error which made the parsing fail, null if the parsing succeeded.
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * Checks if the parsing succeeded.
+         *
+         * @return true if the parsing succeeded, false otherwise.
+         */
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+    }
+
+    /**
+     * Parses the <code>api-regions</code> of the input Features on the common ForkJoin pool, with the JSON-P engine.
+     *
+     * @param features the Features containing the <code>api-regions</code> to parse, identified by distinct IDs.
+     * @return the parsing results, keyed by Feature ID, in the input order.
+     */
+    public static Map<ArtifactId, Result> parseFeatures(Collection<Feature> features) {
+        return parseFeatures(features, Engine.JSONP, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses the <code>api-regions</code> of the input Features on the given executor, waiting for all of them.
+     *
+     * @param features the Features containing the <code>api-regions</code> to parse, identified by distinct IDs.
+     * @param engine the JSON parsing engine
+     * @param executor the executor where running the parsing tasks
+     * @return the parsing results, keyed by Feature ID, in the input order.
+     */
+    public static Map<ArtifactId, Result> parseFeatures(Collection<Feature> features, Engine engine, Executor executor) {
+        requireNonNull(features, "Impossible to extract api-regions from null features");
+        requireNonNull(engine, "Impossible to extract api-regions with a null engine");
+        requireNonNull(executor, "Impossible to extract api-regions with a null executor");
+
+        Map<ArtifactId, Supplier<ApiRegions>> tasks = new LinkedHashMap<>();
+        for (Feature feature : features) {
+            requireNonNull(feature, "Impossible to extract api-regions from a null feature");
+
+            addTask(tasks, feature.getId(), () -> {
+                Extension apiRegionsExtension = feature.getExtensions().getByName(JSONConstants.API_REGIONS_KEY);
+                return apiRegionsExtension != null ? parse(apiRegionsExtension, engine) : null;
+            });
+        }
+
+        return run(tasks, executor);
+    }
+
+    /**
+     * Parses the input <code>api-regions</code> Extensions on the common ForkJoin pool, with the JSON-P engine.
+     *
+     * @param extensions the <code>api-regions</code> Extensions to parse, keyed by the ID of the Feature declaring them.
+     * @return the parsing results, keyed by Feature ID, in the input order.
+     */
+    public static Map<ArtifactId, Result> parseExtensions(Map<ArtifactId, Extension> extensions) {
+        return parseExtensions(extensions, Engine.JSONP, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses the input <code>api-regions</code> Extensions on the given executor, waiting for all of them.
+     *
+     * @param extensions the <code>api-regions</code> Extensions to parse, keyed by the ID of the Feature declaring them.
+     * @param engine the JSON parsing engine
+     * @param executor the executor where running the parsing tasks
+     * @return the parsing results, keyed by Feature ID, in the input order.
+     */
+    public static Map<ArtifactId, Result> parseExtensions(Map<ArtifactId, Extension> extensions, Engine engine, Executor executor) {
+        requireNonNull(extensions, "Impossible to extract api-regions from null extensions");
+        requireNonNull(engine, "Impossible to extract api-regions with a null engine");
+        requireNonNull(executor, "Impossible to extract api-regions with a null executor");
+
+        Map<ArtifactId, Supplier<ApiRegions>> tasks = new LinkedHashMap<>();
+        for (Entry<ArtifactId, Extension> extension : extensions.entrySet()) {
+            addTask(tasks, extension.getKey(), () -> parse(extension.getValue(), engine));
+        }
+
+        return run(tasks, executor);
+    }
+
+    private static ApiRegions parse(Extension apiRegionsExtension, Engine engine) {
+        return ApiRegionsJSONParser.parseApiRegionsWith(ApiRegionsJSONParser.checkApiRegionsExtension(apiRegionsExtension), engine);
+    }
+
+    // all the IDs are checked before submitting any task, so that no task is left running on invalid input
+    private static void addTask(Map<ArtifactId, Supplier<ApiRegions>> tasks, ArtifactId id, Supplier<ApiRegions> task) {
+        requireNonNull(id, "Impossible to extract api-regions without an ID");
+        if (tasks.containsKey(id)) {
+            throw new IllegalArgumentException("Duplicated ID " + id + ", results are keyed by ID");
+        }
+        tasks.put(id, task);
+    }
+
+    private static Map<ArtifactId, Result> run(Map<ArtifactId, Supplier<ApiRegions>> tasks, Executor executor) {
+        Map<ArtifactId, CompletableFuture<ApiRegions>> submitted = new LinkedHashMap<>();
+        for (Entry<ArtifactId, Supplier<ApiRegions>> task : tasks.entrySet()) {
+            submitted.put(task.getKey(), CompletableFuture.supplyAsync(task.getValue(), executor));
+        }
+
+        Map<ArtifactId, Result> results = new LinkedHashMap<>();
+        for (Entry<ArtifactId, CompletableFuture<ApiRegions>> task : submitted.entrySet()) {
+            Result result;
+            try {
+                result = new Result(task.getValue().join(), null);
+            } catch (CompletionException e) {
+                result = new Result(null, e.getCause() != null ? e.getCause() : e);
+            }
+            results.put(task.getKey(), result);
+        }
+
+        return results;
+    }
+
+}
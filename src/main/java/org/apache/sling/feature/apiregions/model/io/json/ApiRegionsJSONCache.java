@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.sling.feature.Extension;
+import org.apache.sling.feature.Feature;
+import org.apache.sling.feature.apiregions.model.FrozenApiRegions;
+
+/**
+ * A bounded cache of parsed <code>api-regions</code>, keyed by the SHA-256 digest of their JSON representation,
+ * so that identical <code>api-regions</code> declared by different Features are parsed once.
+ *
+ * When either the maximum number of entries or the maximum estimated size is exceeded,
+ * the least recently used entries are evicted.
+ * Cached values are immutable {@link FrozenApiRegions} snapshots, safe to share across callers and threads.
+ */
+public final class ApiRegionsJSONCache {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    // access-ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<ByteBuffer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxEntries;
+
+    private final long maxEstimatedBytes;
+
+    private long estimatedBytes;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    /**
+     * Creates a new cache bounded by the given number of entries and estimated size.
+     *
+     * @param maxEntries the maximum number of cached <code>api-regions</code>, must be positive.
+     * @param maxEstimatedBytes the maximum estimated size, in bytes, of the cached <code>api-regions</code>, must be positive.
+     */
+    public ApiRegionsJSONCache(int maxEntries, long maxEstimatedBytes) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Impossible to create a cache with a non positive number of entries: " + maxEntries);
+        }
+        if (maxEstimatedBytes <= 0) {
+            throw new IllegalArgumentException("Impossible to create a cache with a non positive size: " + maxEstimatedBytes);
+        }
+        this.maxEntries = maxEntries;
+        this.maxEstimatedBytes = maxEstimatedBytes;
+    }
+
+    /**
+     * Returns the <code>api-regions</code> of the input Feature, parsing them only if not cached already.
+     *
+     * @param feature the Feature containing the <code>api-regions</code> to parse
+     * @return the parsed <code>api-regions</code>, null if the Feature does not have the <code>api-regions</code> extension.
+     */
+    public FrozenApiRegions parseApiRegions(Feature feature) {
+        requireNonNull(feature, "Impossible to extract api-regions from a null feature");
+
+        Extension apiRegionsExtension = feature.getExtensions().getByName(JSONConstants.API_REGIONS_KEY);
+        if (apiRegionsExtension == null) {
+            return null;
+        }
+
+        return parseApiRegions(apiRegionsExtension);
+    }
+
+    /**
+     * Returns the <code>api-regions</code> of the input Extension, parsing them only if not cached already.
+     *
+     * @param apiRegionsExtension the <code>api-regions</code> Extension to parse
+     * @return the parsed <code>api-regions</code>
+     */
+    public FrozenApiRegions parseApiRegions(Extension apiRegionsExtension) {
+        return parseApiRegions(ApiRegionsJSONParser.checkApiRegionsExtension(apiRegionsExtension));
+    }
+
+    /**
+     * Returns the <code>api-regions</code> represented by the input JSON, parsing them only if not cached already.
+     *
+     * @param jsonRepresentation the JSON representation of the <code>api-regions</code>
+     * @return the parsed <code>api-regions</code>
+     */
+    public FrozenApiRegions parseApiRegions(String jsonRepresentation) {
+        requireNonNull(jsonRepresentation, "Impossible to extract api-regions from a null JSON representation");
+
+        ByteBuffer key = digest(jsonRepresentation);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+                return entry.apiRegions;
+            }
+            missCount++;
+        }
+
+        // parsing happens outside the lock, concurrent misses on the same key may parse it twice
+        FrozenApiRegions apiRegions = ApiRegionsJSONParser.parseApiRegions(jsonRepresentation).freeze();
+        // Java Strings take 2 bytes per char, parsed package names are roughly as long as the JSON they come from
+        long size = 2L * jsonRepresentation.length();
+
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(apiRegions, size));
+            if (previous != null) {
+                estimatedBytes -= previous.size;
+            }
+            estimatedBytes += size;
+            evict();
+        }
+
+        return apiRegions;
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || estimatedBytes > maxEstimatedBytes) && eldest.hasNext()) {
+            estimatedBytes -= eldest.next().size;
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all the cached <code>api-regions</code>, statistics are preserved.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        estimatedBytes = 0;
+    }
+
+    /**
+     * Returns the number of cached <code>api-regions</code>.
+     *
+     * @return the number of cached <code>api-regions</code>.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the estimated size, in bytes, of the cached <code>api-regions</code>.
+     *
+     * @return the estimated size, in bytes, of the cached <code>api-regions</code>.
+     */
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns how many times the requested <code>api-regions</code> were found in the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns how many times the requested <code>api-regions</code> had to be parsed.
+     *
+     * @return the number of cache misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns how many cached <code>api-regions</code> were evicted to respect the cache bounds.
+     *
+     * @return the number of evictions.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ApiRegionsJSONCache [entries=" + entries.size()
+                + ", estimatedBytes=" + estimatedBytes
+                + ", hits=" + hitCount
+                + ", misses=" + missCount
+                + ", evictions=" + evictionCount
+                + "]";
+    }
+
+    private static ByteBuffer digest(String jsonRepresentation) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(DIGEST_ALGORITHM + " algorithm not supported", e);
+        }
+        return ByteBuffer.wrap(messageDigest.digest(jsonRepresentation.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class Entry {
+
+        final FrozenApiRegions apiRegions;
+
+        final long size;
+
+        Entry(FrozenApiRegions apiRegions, long size) {
+            this.apiRegions = apiRegions;
+            this.size = size;
+        }
+
+    }
+
+}
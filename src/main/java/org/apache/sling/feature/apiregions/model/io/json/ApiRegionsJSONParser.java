@@ -18,13 +18,25 @@ package org.apache.sling.feature.apiregions.model.io.json;
 
 import static org.apache.sling.feature.ExtensionType.JSON;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Predicate;
 
 import javax.json.Json;
 import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
 
 import static java.util.Objects.requireNonNull;
 
@@ -39,6 +51,28 @@ import org.apache.sling.feature.apiregions.model.ApiRegions;
  */
 public final class ApiRegionsJSONParser implements JSONConstants {
 
+    /**
+     * The available JSON parsing engines.
+     */
+    public enum Engine {
+
+        /**
+         * The general purpose JSON-P streaming parser.
+         */
+        JSONP,
+
+        /**
+         * A tokenizer specialized for the <code>api-regions</code> schema, working on the whole JSON characters:
+         * unknown keys and comments are skipped without allocating, package names go straight to validation.
+         * It produces the same results as {@link #JSONP}, and fails on the same inputs.
+         */
+        SPECIALIZED
+
+    }
+
+    // looking up the JsonProvider is expensive, do it once
+    private static final JsonParserFactory PARSER_FACTORY = Json.createParserFactory(Collections.<String, Object>emptyMap());
+
     private ApiRegionsJSONParser() {
         // this class must not be instantiated from outside
     }
@@ -70,6 +104,11 @@ public final class ApiRegionsJSONParser implements JSONConstants {
      * @return the related in-memory representation of the <code>api-regions</code>
      */
     public static ApiRegions parseApiRegions(Extension apiRegionsExtension) {
+        return parseApiRegions(checkApiRegionsExtension(apiRegionsExtension));
+    }
+
+    // returns the JSON of a valid api-regions extension
+    static String checkApiRegionsExtension(Extension apiRegionsExtension) {
         requireNonNull(apiRegionsExtension, "Impossible to extract api-regions from a null extension");
 
         if (!API_REGIONS_KEY.equals(apiRegionsExtension.getName())) {
@@ -81,7 +120,7 @@ public final class ApiRegionsJSONParser implements JSONConstants {
                                                + " is not a recognised as valid api-regions extension");
         }
 
-        return parseApiRegions(apiRegionsExtension.getJSON());
+        return apiRegionsExtension.getJSON();
     }
 
     /**
@@ -92,6 +131,194 @@ public final class ApiRegionsJSONParser implements JSONConstants {
      */
     public static ApiRegions parseApiRegions(String jsonRepresentation) {
         requireNonNull(jsonRepresentation, "Impossible to extract api-regions from a null JSON representation");
+        return parseApiRegions(new StringReader(jsonRepresentation));
+    }
+
+    /**
+     * Parses an <code>api-regions</code> JSON string representation, mapping it to the related in-memory representation,
+     * using the given parsing engine.
+     *
+     * @param jsonRepresentation the <code>api-regions</code> JSON string representation
+     * @param engine the JSON parsing engine
+     * @return the related in-memory representation of the <code>api-regions</code>
+     */
+    public static ApiRegions parseApiRegionsWith(String jsonRepresentation, Engine engine) {
+        requireNonNull(jsonRepresentation, "Impossible to extract api-regions from a null JSON representation");
+        requireNonNull(engine, "Impossible to extract api-regions with a null engine");
+
+        if (Engine.JSONP == engine) {
+            return parseApiRegions(jsonRepresentation);
+        }
+
+        char[] json = jsonRepresentation.toCharArray();
+        return parseApiRegions(json, json.length);
+    }
+
+    /**
+     * Parses an <code>api-regions</code> JSON file, encoded in UTF-8, mapping it to the related in-memory representation.
+     *
+     * @param jsonFile the <code>api-regions</code> JSON file
+     * @return the related in-memory representation of the <code>api-regions</code>
+     * @throws IOException if any error occurs while reading the file
+     */
+    public static ApiRegions parseApiRegions(Path jsonFile) throws IOException {
+        requireNonNull(jsonFile, "Impossible to extract api-regions from a null JSON file");
+
+        try (Reader reader = Files.newBufferedReader(jsonFile, StandardCharsets.UTF_8)) {
+            return parseApiRegions(reader);
+        }
+    }
+
+    /**
+     * Parses an <code>api-regions</code> JSON stream, encoded in UTF-8, mapping it to the related in-memory representation.
+     *
+     * The stream is read but not closed.
+     *
+     * @param input the <code>api-regions</code> JSON stream
+     * @return the related in-memory representation of the <code>api-regions</code>
+     */
+    public static ApiRegions parseApiRegions(InputStream input) {
+        requireNonNull(input, "Impossible to extract api-regions from a null JSON stream");
+        return parseApiRegions(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses an <code>api-regions</code> JSON character stream, mapping it to the related in-memory representation.
+     *
+     * The reader is consumed but not closed.
+     *
+     * @param reader the <code>api-regions</code> JSON character stream
+     * @return the related in-memory representation of the <code>api-regions</code>
+     */
+    public static ApiRegions parseApiRegions(Reader reader) {
+        return parseApiRegions(reader, PARSER_FACTORY);
+    }
+
+    /**
+     * Parses an <code>api-regions</code> JSON character stream, mapping it to the related in-memory representation,
+     * using the given parsing engine.
+     *
+     * The reader is consumed but not closed.
+     *
+     * @param reader the <code>api-regions</code> JSON character stream
+     * @param engine the JSON parsing engine
+     * @return the related in-memory representation of the <code>api-regions</code>
+     * @throws IOException if any error occurs while reading from the input reader
+     */
+    public static ApiRegions parseApiRegionsWith(Reader reader, Engine engine) throws IOException {
+        requireNonNull(reader, "Impossible to extract api-regions from a null JSON reader");
+        requireNonNull(engine, "Impossible to extract api-regions with a null engine");
+
+        if (Engine.JSONP == engine) {
+            return parseApiRegions(reader);
+        }
+
+        CharBuffer json = readFully(reader);
+        return parseApiRegions(json.array(), json.limit());
+    }
+
+    // reads directly into a growing array, the returned buffer wraps it without copying, up to the read length
+    private static CharBuffer readFully(Reader reader) throws IOException {
+        char[] json = new char[8192];
+        int length = 0;
+        int read;
+        while ((read = reader.read(json, length, json.length - length)) != -1) {
+            length += read;
+            if (length == json.length) {
+                json = Arrays.copyOf(json, json.length << 1);
+            }
+        }
+        return CharBuffer.wrap(json, 0, length);
+    }
+
+    /**
+     * Parses only the regions, of an <code>api-regions</code> JSON string representation, accepted by the given filter,
+     * together with their ancestors which are required by the regions hierarchy:
+     * exports of all other regions are skipped without being tokenized.
+     *
+     * To select a set of regions by name, use its <code>contains</code> method as filter.
+     *
+     * @param jsonRepresentation the <code>api-regions</code> JSON string representation
+     * @param regionFilter the filter of the region names to parse
+     * @return the in-memory representation of the selected <code>api-regions</code> and their ancestors
+     */
+    public static ApiRegions parseSelectedApiRegions(String jsonRepresentation, Predicate<String> regionFilter) {
+        requireNonNull(regionFilter, "Impossible to extract api-regions with a null regions filter");
+        return parseApiRegionsLazily(jsonRepresentation).getApiRegions(regionFilter);
+    }
+
+    /**
+     * Parses only the regions, of an <code>api-regions</code> JSON character stream, accepted by the given filter,
+     * see {@link #parseSelectedApiRegions(String, Predicate)}.
+     *
+     * The reader is consumed but not closed.
+     *
+     * @param reader the <code>api-regions</code> JSON character stream
+     * @param regionFilter the filter of the region names to parse
+     * @return the in-memory representation of the selected <code>api-regions</code> and their ancestors
+     * @throws IOException if any error occurs while reading from the input reader
+     */
+    public static ApiRegions parseSelectedApiRegions(Reader reader, Predicate<String> regionFilter) throws IOException {
+        requireNonNull(regionFilter, "Impossible to extract api-regions with a null regions filter");
+        return parseApiRegionsLazily(reader).getApiRegions(regionFilter);
+    }
+
+    /**
+     * Parses lazily an <code>api-regions</code> JSON string representation:
+     * a single fast pass indexes the declared regions,
+     * exports of a region are tokenized and validated only when the region, or one of its descendants, is requested.
+     *
+     * @param jsonRepresentation the <code>api-regions</code> JSON string representation
+     * @return the lazily materialized <code>api-regions</code>
+     */
+    public static LazyApiRegions parseApiRegionsLazily(String jsonRepresentation) {
+        requireNonNull(jsonRepresentation, "Impossible to extract api-regions from a null JSON representation");
+
+        char[] json = jsonRepresentation.toCharArray();
+        return new LazyApiRegions(json, json.length);
+    }
+
+    /**
+     * Parses lazily an <code>api-regions</code> JSON character stream, see {@link #parseApiRegionsLazily(String)}.
+     *
+     * The reader is consumed but not closed.
+     *
+     * @param reader the <code>api-regions</code> JSON character stream
+     * @return the lazily materialized <code>api-regions</code>
+     * @throws IOException if any error occurs while reading from the input reader
+     */
+    public static LazyApiRegions parseApiRegionsLazily(Reader reader) throws IOException {
+        requireNonNull(reader, "Impossible to extract api-regions from a null JSON reader");
+
+        CharBuffer json = readFully(reader);
+        return new LazyApiRegions(json.array(), json.limit());
+    }
+
+    private static ApiRegions parseApiRegions(char[] json, int length) {
+        ApiRegions apiRegions = new ApiRegions();
+
+        // regions and exports are tokenized in a single pass
+        new ApiRegionsJSONTokenizer(json, length).readRegions((regionName, exports) -> {
+            ApiRegion apiRegion = apiRegions.addNew(regionName);
+            apiRegion.addAll(exports);
+        });
+
+        return apiRegions;
+    }
+
+    /**
+     * Parses an <code>api-regions</code> JSON character stream, mapping it to the related in-memory representation,
+     * using the given factory to create the underlying JSON parser.
+     *
+     * The reader is consumed but not closed.
+     *
+     * @param reader the <code>api-regions</code> JSON character stream
+     * @param parserFactory the factory of the JSON parser, meant to be reused across invocations
+     * @return the related in-memory representation of the <code>api-regions</code>
+     */
+    public static ApiRegions parseApiRegions(Reader reader, JsonParserFactory parserFactory) {
+        requireNonNull(reader, "Impossible to extract api-regions from a null JSON reader");
+        requireNonNull(parserFactory, "Impossible to extract api-regions with a null JSON parser factory");
 
         ApiRegions apiRegions = new ApiRegions();
 
@@ -100,7 +327,7 @@ public final class ApiRegionsJSONParser implements JSONConstants {
         String regionName;
         Collection<String> apis;
 
-        JsonParser parser = Json.createParser(new StringReader(jsonRepresentation));
+        JsonParser parser = parserFactory.createParser(reader);
         if (Event.START_ARRAY != parser.next()) {
             throw new IllegalStateException("Expected 'api-region' element to start with an Array: "
                                              + parser.getLocation());
@@ -131,6 +358,10 @@ public final class ApiRegionsJSONParser implements JSONConstants {
 
                             while (parser.hasNext() && Event.VALUE_STRING == parser.next()) {
                                 String api = parser.getString();
+                                if (api.isEmpty()) {
+                                    throw new IllegalStateException("Expected a non empty 'exports' entry: "
+                                                                    + parser.getLocation());
+                                }
                                 // skip comments
                                 if ('#' != api.charAt(0)) {
                                     apis.add(api);
@@ -18,15 +18,19 @@ package org.apache.sling.feature.apiregions.model.io.json;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.StringWriter;
 import java.io.Writer;
-import java.util.Collections;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
-import javax.json.Json;
+import javax.json.JsonException;
 import javax.json.stream.JsonGenerator;
-import javax.json.stream.JsonGeneratorFactory;
 
 import org.apache.sling.feature.Extension;
 import org.apache.sling.feature.ExtensionType;
@@ -39,7 +43,8 @@ import org.apache.sling.feature.apiregions.model.ApiRegions;
  */
 public final class ApiRegionsJSONSerializer implements JSONConstants {
 
-    private static final JsonGeneratorFactory GENERATOR_FACTORY = Json.createGeneratorFactory(Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true));
+    // widest indentation per nesting level assumed for the JSON-P providers pretty printing
+    private static final int MAX_PROVIDER_INDENT = 4;
 
     private ApiRegionsJSONSerializer() {
         // this class must not be instantiated from outside
@@ -52,8 +57,84 @@ public final class ApiRegionsJSONSerializer implements JSONConstants {
      * @param output the target stream where serializing the <code>api-regions</code>
      */
     public static void serializeApiRegions(ApiRegions apiRegions, OutputStream output) {
+        serializeApiRegions(apiRegions, output, ApiRegionsJSONSerializerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Serializes the input <code>api-regions</code> to the target stream, encoded in UTF-8, according to the given configuration.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param output the target stream where serializing the <code>api-regions</code>
+     * @param configuration the serializer configuration
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, OutputStream output, ApiRegionsJSONSerializerConfiguration configuration) {
         requireNonNull(output, "Impossible to serialize api-regions to a null stream");
-        serializeApiRegions(apiRegions, new OutputStreamWriter(output));
+        serializeApiRegions(apiRegions, new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)), configuration);
+    }
+
+    /**
+     * Serializes the input <code>api-regions</code> to the target channel, encoded in UTF-8.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param channel the target channel where serializing the <code>api-regions</code>
+     * @throws IOException if any error occurs while writing to the channel
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, WritableByteChannel channel) throws IOException {
+        serializeApiRegions(apiRegions, channel, ApiRegionsJSONSerializerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Serializes the input <code>api-regions</code> to the target channel, encoded in UTF-8, according to the given configuration.
+     *
+     * The output is fully flushed to the channel, which is left open.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param channel the target channel where serializing the <code>api-regions</code>
+     * @param configuration the serializer configuration
+     * @throws IOException if any error occurs while writing to the channel
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, WritableByteChannel channel, ApiRegionsJSONSerializerConfiguration configuration) throws IOException {
+        requireNonNull(channel, "Impossible to serialize api-regions to a null channel");
+
+        try {
+            serializeApiRegions(apiRegions, new ChannelWriter(channel), configuration);
+        } catch (JsonException e) {
+            // JSON-P wraps I/O errors
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Serializes the input <code>api-regions</code> to the target file, encoded in UTF-8.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param jsonFile the target file where serializing the <code>api-regions</code>, created or overwritten
+     * @throws IOException if any error occurs while writing the file
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, Path jsonFile) throws IOException {
+        serializeApiRegions(apiRegions, jsonFile, ApiRegionsJSONSerializerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Serializes the input <code>api-regions</code> to the target file, encoded in UTF-8, according to the given configuration.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param jsonFile the target file where serializing the <code>api-regions</code>, created or overwritten
+     * @param configuration the serializer configuration
+     * @throws IOException if any error occurs while writing the file
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, Path jsonFile, ApiRegionsJSONSerializerConfiguration configuration) throws IOException {
+        requireNonNull(jsonFile, "Impossible to serialize api-regions to a null JSON file");
+
+        try (FileChannel channel = FileChannel.open(jsonFile,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            serializeApiRegions(apiRegions, channel, configuration);
+        }
     }
 
     /**
@@ -63,18 +144,30 @@ public final class ApiRegionsJSONSerializer implements JSONConstants {
      * @param writer the target writer where serializing the <code>api-regions</code>
      */
     public static void serializeApiRegions(ApiRegions apiRegions, Writer writer) {
+        serializeApiRegions(apiRegions, writer, ApiRegionsJSONSerializerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Serializes the input <code>api-regions</code> to the target writer, according to the given configuration.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param writer the target writer where serializing the <code>api-regions</code>
+     * @param configuration the serializer configuration
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, Writer writer, ApiRegionsJSONSerializerConfiguration configuration) {
         requireNonNull(apiRegions, "Impossible to serialize null api-regions");
         requireNonNull(writer, "Impossible to serialize api-regions to a null stream");
+        requireNonNull(configuration, "Impossible to serialize api-regions with a null configuration");
 
-        JsonGenerator generator = GENERATOR_FACTORY.createGenerator(writer)
-                                                   .writeStartArray();
+        JsonGenerator generator = configuration.createGenerator(writer)
+                                               .writeStartArray();
 
         for (ApiRegion apiRegion : apiRegions) {
             generator.writeStartObject()
                      .write(NAME_KEY, apiRegion.getName())
                      .writeStartArray(EXPORTS_KEY);
 
-            for (String api : apiRegion.getExports()) {
+            for (String api : exportsOf(apiRegion, configuration)) {
                 generator.write(api);
             }
 
@@ -91,11 +184,27 @@ public final class ApiRegionsJSONSerializer implements JSONConstants {
      * @return the mapped <code>api-regions</code> Feature Model Extension
      */
     public static Extension serializeApiRegions(ApiRegions apiRegions) {
-        StringWriter stringWriter = new StringWriter();
-        serializeApiRegions(apiRegions, stringWriter);
+        return serializeApiRegions(apiRegions, ApiRegionsJSONSerializerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Maps the input <code>api-regions</code> to the <code>api-regions</code> Feature Model Extension,
+     * according to the given configuration.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param configuration the serializer configuration
+     * @return the mapped <code>api-regions</code> Feature Model Extension
+     */
+    public static Extension serializeApiRegions(ApiRegions apiRegions, ApiRegionsJSONSerializerConfiguration configuration) {
+        requireNonNull(apiRegions, "Impossible to serialize null api-regions");
+        requireNonNull(configuration, "Impossible to serialize api-regions with a null configuration");
+
+        // presized, so the buffer never grows and the final String is the only copy
+        StringBuilderWriter writer = new StringBuilderWriter(estimateSize(apiRegions, configuration));
+        serializeApiRegions(apiRegions, writer, configuration);
 
         Extension apiRegionsExtension = new Extension(ExtensionType.JSON, API_REGIONS_KEY, false);
-        apiRegionsExtension.setJSON(stringWriter.toString());
+        apiRegionsExtension.setJSON(writer.toString());
         return apiRegionsExtension;
     }
 
@@ -107,9 +216,78 @@ public final class ApiRegionsJSONSerializer implements JSONConstants {
      * @param feature the target Feature where adding the extension
      */
     public static void serializeApiRegions(ApiRegions apiRegions, Feature feature) {
+        serializeApiRegions(apiRegions, feature, ApiRegionsJSONSerializerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Maps the input <code>api-regions</code> to the <code>api-regions</code> Feature Model Extension,
+     * according to the given configuration, and add it to the target Feature.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be serialized
+     * @param feature the target Feature where adding the extension
+     * @param configuration the serializer configuration
+     */
+    public static void serializeApiRegions(ApiRegions apiRegions, Feature feature, ApiRegionsJSONSerializerConfiguration configuration) {
         requireNonNull(feature, "Impossible to serialize api-regions to a null Feature");
-        Extension apiRegionsExtension = serializeApiRegions(apiRegions);
+        Extension apiRegionsExtension = serializeApiRegions(apiRegions, configuration);
         feature.getExtensions().add(apiRegionsExtension);
     }
 
+    // exact serialized length when the indentation is explicit, an upper bound when formatted by the JSON-P provider,
+    // assuming names and packages need no escaping
+    static int estimateSize(ApiRegions apiRegions, ApiRegionsJSONSerializerConfiguration configuration) {
+        boolean providerFormatting = configuration.isPrettyPrinting()
+                                     && ApiRegionsJSONSerializerConfiguration.PROVIDER_INDENT == configuration.getIndent();
+        // providers are assumed to indent by at most 4 spaces, to put a space around ':'
+        // and to break lines in empty arrays as well
+        int indent = providerFormatting ? MAX_PROVIDER_INDENT : configuration.getIndent();
+        int separator = providerFormatting ? 2 : 0;
+
+        // '[' ']', a provider may start with a line break
+        long size = 2 + (providerFormatting ? 1 : 0);
+        int regions = 0;
+        for (ApiRegion apiRegion : apiRegions) {
+            // {"name":"...","exports":[]}
+            size += 24 + 2 * separator + apiRegion.getName().length();
+            // before '{' and '}', before "name" and "exports"
+            size += 2 * lineBreak(configuration, indent, 1) + 2 * lineBreak(configuration, indent, 2);
+
+            int exports = 0;
+            for (String api : apiRegion.getExports()) {
+                // "..." and a line break before it
+                size += 2 + api.length() + lineBreak(configuration, indent, 3);
+                exports++;
+            }
+            if (exports > 0) {
+                // ',' between exports
+                size += exports - 1;
+            }
+            if (exports > 0 || providerFormatting) {
+                // before ']'
+                size += lineBreak(configuration, indent, 2);
+            }
+
+            regions++;
+        }
+        if (regions > 0) {
+            // ',' between regions
+            size += regions - 1;
+        }
+        if (regions > 0 || providerFormatting) {
+            // before the closing ']'
+            size += lineBreak(configuration, indent, 0);
+        }
+
+        return (int) Math.min(size, Integer.MAX_VALUE - 8);
+    }
+
+    // line break followed by the indentation of the given nesting level, nothing when compact
+    private static int lineBreak(ApiRegionsJSONSerializerConfiguration configuration, int indent, int level) {
+        return configuration.isPrettyPrinting() ? 1 + level * indent : 0;
+    }
+
+    private static Iterable<String> exportsOf(ApiRegion apiRegion, ApiRegionsJSONSerializerConfiguration configuration) {
+        return configuration.isSortedExports() ? apiRegion.getSortedExports() : apiRegion.getExports();
+    }
+
 }
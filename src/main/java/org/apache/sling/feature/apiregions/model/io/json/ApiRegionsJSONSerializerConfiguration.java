@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import java.io.Writer;
+import java.util.Collections;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+
+/**
+ * Immutable set of options to control the <code>api-regions</code> JSON output,
+ * see {@link ApiRegionsJSONSerializer}.
+ *
+ * Instances are meant to be created once and reused, since they hold the related JSON generator factory.
+ */
+public final class ApiRegionsJSONSerializerConfiguration {
+
+    /**
+     * Indentation value which relies on the JSON-P provider pretty printing.
+     */
+    public static final int PROVIDER_INDENT = -1;
+
+    /**
+     * Pretty printed output, as formatted by the JSON-P provider, with exports in the region iteration order.
+     */
+    public static final ApiRegionsJSONSerializerConfiguration DEFAULT = new ApiRegionsJSONSerializerConfiguration(true, PROVIDER_INDENT, false);
+
+    /**
+     * Compact output, without any whitespace, with exports in the region iteration order.
+     */
+    public static final ApiRegionsJSONSerializerConfiguration COMPACT = new ApiRegionsJSONSerializerConfiguration(false, 0, false);
+
+    /**
+     * Pretty printed output, indented with 2 spaces regardless of the JSON-P provider, with exports in lexicographic order:
+     * the same regions are always serialized to the same bytes, suitable for reproducible and cacheable artifacts.
+     */
+    public static final ApiRegionsJSONSerializerConfiguration DETERMINISTIC = new ApiRegionsJSONSerializerConfiguration(true, 2, true);
+
+    private final boolean prettyPrinting;
+
+    private final int indent;
+
+    private final boolean sortedExports;
+
+    private final JsonGeneratorFactory generatorFactory;
+
+    /**
+     * Creates a new serializer configuration.
+     *
+     * @param prettyPrinting true to break lines and indent the output, false for a compact output.
+     * @param indent the number of spaces per nesting level when pretty printing,
+     * {@link #PROVIDER_INDENT} to rely on the JSON-P provider formatting; ignored for compact output.
+     * @param sortedExports true to write the exports of each region in lexicographic order,
+     * false to write them in the region iteration order.
+     */
+    public ApiRegionsJSONSerializerConfiguration(boolean prettyPrinting, int indent, boolean sortedExports) {
+        if (indent < PROVIDER_INDENT) {
+            throw new IllegalArgumentException("Indentation must be a positive number or PROVIDER_INDENT, " + indent + " is not valid");
+        }
+
+        this.prettyPrinting = prettyPrinting;
+        this.indent = prettyPrinting ? indent : 0;
+        this.sortedExports = sortedExports;
+
+        // explicit indentation is applied on top of the compact output
+        boolean providerPrettyPrinting = prettyPrinting && indent == PROVIDER_INDENT;
+        generatorFactory = Json.createGeneratorFactory(providerPrettyPrinting
+                                                       ? Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true)
+                                                       : Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * Returns true if the output is pretty printed, false if compact.
+     *
+     * @return true if the output is pretty printed, false if compact.
+     */
+    public boolean isPrettyPrinting() {
+        return prettyPrinting;
+    }
+
+    /**
+     * Returns the number of spaces per nesting level when pretty printing,
+     * {@link #PROVIDER_INDENT} if the JSON-P provider formatting is used.
+     *
+     * @return the number of spaces per nesting level when pretty printing.
+     */
+    public int getIndent() {
+        return indent;
+    }
+
+    /**
+     * Returns true if the exports of each region are written in lexicographic order,
+     * false if written in the region iteration order.
+     *
+     * @return true if the exports of each region are written in lexicographic order.
+     */
+    public boolean isSortedExports() {
+        return sortedExports;
+    }
+
+    JsonGenerator createGenerator(Writer writer) {
+        if (prettyPrinting && indent != PROVIDER_INDENT) {
+            writer = new IndentingWriter(writer, indent);
+        }
+        return generatorFactory.createGenerator(writer);
+    }
+
+}
@@ -0,0 +1,605 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * Hand-written tokenizer specialized for the <code>api-regions</code> schema, working directly on the JSON characters.
+ *
+ * It emits the same events as a JSON-P {@link javax.json.stream.JsonParser} and walks them exactly as
+ * {@link ApiRegionsJSONParser#parseApiRegions(java.io.Reader, javax.json.stream.JsonParserFactory)} does,
+ * so both engines accept, skip and reject the same inputs;
+ * strings are materialized only for region names and non-comment exports.
+ *
+ * Regions are either read together with their exports in a single pass,
+ * or scanned recording where their exports start, exports being then read on demand from the recorded offset.
+ */
+final class ApiRegionsJSONTokenizer implements JSONConstants {
+
+    /**
+     * Receives the regions which would be created by the api-regions parser,
+     * i.e. the ones with a name and at least one non-comment export.
+     */
+    interface RegionHandler {
+
+        void onRegion(String name, int exportsOffset);
+
+    }
+
+    /**
+     * Receives the regions which would be created by the api-regions parser together with their non-comment exports,
+     * the exports list is reused across regions.
+     */
+    interface RegionExportsHandler {
+
+        void onRegion(String name, List<String> exports);
+
+    }
+
+    // what the next event can be
+    private static final int VALUE = 0;
+
+    private static final int FIRST_IN_ARRAY = 1;
+
+    private static final int FIRST_IN_OBJECT = 2;
+
+    private static final int KEY = 3;
+
+    private static final int AFTER_VALUE = 4;
+
+    private static final int END = 5;
+
+    private final char[] json;
+
+    private final int length;
+
+    private int position;
+
+    private int state = VALUE;
+
+    // containers stack, true for objects and false for arrays
+    private boolean[] objects = new boolean[8];
+
+    private int depth;
+
+    // current string or number token, escapes not yet decoded
+    private Event event;
+
+    private int tokenStart;
+
+    private int tokenEnd;
+
+    private boolean tokenEscaped;
+
+    public ApiRegionsJSONTokenizer(char[] json, int length) {
+        this.json = json;
+        this.length = length;
+    }
+
+    public void scanRegions(RegionHandler handler) {
+        walkRegions(handler, null);
+    }
+
+    public void readRegions(RegionExportsHandler handler) {
+        walkRegions(null, handler);
+    }
+
+    private void walkRegions(RegionHandler regionHandler, RegionExportsHandler exportsHandler) {
+        // collected only when read in a single pass
+        List<String> exports = exportsHandler != null ? new ArrayList<>() : null;
+        Consumer<String> exportsConsumer = exports != null ? exports::add : null;
+
+        if (Event.START_ARRAY != next()) {
+            throw new IllegalStateException("Expected 'api-region' element to start with an Array: "
+                                            + getLocation());
+        }
+
+        Event event;
+        while (Event.END_ARRAY != (event = next())) {
+            if (Event.START_OBJECT != event) {
+                throw new IllegalStateException("Expected 'api-region' data to start with an Object: "
+                                                + getLocation());
+            }
+
+            String regionName = null;
+            int exportsOffset = -1;
+            boolean hasExports = false;
+
+            while (Event.END_OBJECT != (event = next())) {
+                if (Event.KEY_NAME == event) {
+                    if (isToken(NAME_KEY)) {
+                        next();
+                        regionName = getString();
+                    } else if (isToken(EXPORTS_KEY)) {
+                        skipWhitespaces();
+                        exportsOffset = position;
+                        if (exports != null) {
+                            // as for JSON-P, the last exports key wins
+                            exports.clear();
+                        }
+                        hasExports = readExports(exportsConsumer);
+                    }
+                }
+            }
+
+            if (regionName != null && !regionName.isEmpty() && hasExports) {
+                if (regionHandler != null) {
+                    regionHandler.onRegion(regionName, exportsOffset);
+                } else {
+                    exportsHandler.onRegion(regionName, exports);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the non-comment exports, starting at the given offset as recorded while scanning, to the consumer.
+     *
+     * It can be safely invoked by a {@link RegionHandler} while regions are being scanned.
+     */
+    public void readExports(int exportsOffset, Consumer<String> consumer) {
+        ApiRegionsJSONTokenizer exportsTokenizer = new ApiRegionsJSONTokenizer(json, length);
+        // exports are the value of a key, within a region Object, within the api-regions Array
+        exportsTokenizer.position = exportsOffset;
+        exportsTokenizer.objects[0] = false;
+        exportsTokenizer.objects[1] = true;
+        exportsTokenizer.depth = 2;
+        exportsTokenizer.readExports(consumer);
+    }
+
+    // mirrors the JSON-P engine: consumes the exports value, then strings until any other event;
+    // returns true if there is any non-comment export.
+    // Without consumer, once a non-comment export is found, a remaining Array of Strings is skipped:
+    // invalid entries are then reported only when the exports are read
+    private boolean readExports(Consumer<String> consumer) {
+        boolean hasExports = false;
+
+        // start array
+        next();
+
+        while (hasNext() && Event.VALUE_STRING == next()) {
+            if (tokenStart == tokenEnd) {
+                throw new IllegalStateException("Expected a non empty 'exports' entry: " + getLocation());
+            }
+            if ('#' != firstTokenChar()) {
+                hasExports = true;
+                if (consumer != null) {
+                    consumer.accept(getString());
+                } else if (skipRemainingStrings()) {
+                    // scanning only: the remaining entries are lexed once the exports are read
+                    break;
+                }
+            }
+        }
+
+        return hasExports;
+    }
+
+    // skips, without lexing them, the remaining entries of an Array made of Strings only, up to the closing ']';
+    // as soon as anything else is found, the position is left untouched and false returned
+    private boolean skipRemainingStrings() {
+        int index = position;
+        while (true) {
+            while (index < length && isWhitespace(json[index])) {
+                index++;
+            }
+            if (index == length) {
+                return false;
+            }
+
+            char current = json[index++];
+            if (']' == current) {
+                position = index;
+                close();
+                return true;
+            }
+            if (',' != current) {
+                return false;
+            }
+
+            while (index < length && isWhitespace(json[index])) {
+                index++;
+            }
+            if (index == length || '"' != json[index]) {
+                return false;
+            }
+
+            // the String is skipped only looking for its closing quote
+            index++;
+            while (index < length && '"' != json[index]) {
+                if ('\\' == json[index]) {
+                    index++;
+                }
+                index++;
+            }
+            if (index >= length) {
+                return false;
+            }
+            index++;
+        }
+    }
+
+    // JSON-P like events
+
+    boolean hasNext() {
+        return END != state;
+    }
+
+    Event next() {
+        switch (state) {
+            case FIRST_IN_ARRAY:
+                skipWhitespaces();
+                if (consume(']')) {
+                    return close();
+                }
+                return value();
+
+            case FIRST_IN_OBJECT:
+                skipWhitespaces();
+                if (consume('}')) {
+                    return close();
+                }
+                return key();
+
+            case KEY:
+                return key();
+
+            case AFTER_VALUE:
+                skipWhitespaces();
+                if (consume(',')) {
+                    return objects[depth - 1] ? key() : value();
+                }
+                if (consume(objects[depth - 1] ? '}' : ']')) {
+                    return close();
+                }
+                throw unexpected(objects[depth - 1] ? "',' or '}'" : "',' or ']'");
+
+            case END:
+                throw new NoSuchElementException("No more events, the api-regions document is complete");
+
+            default:
+                return value();
+        }
+    }
+
+    String getString() {
+        if (Event.KEY_NAME != event && Event.VALUE_STRING != event && Event.VALUE_NUMBER != event) {
+            throw new IllegalStateException("String value is not available for event " + event);
+        }
+
+        if (!tokenEscaped) {
+            return new String(json, tokenStart, tokenEnd - tokenStart);
+        }
+
+        StringBuilder value = new StringBuilder(tokenEnd - tokenStart);
+        int index = tokenStart;
+        while (index < tokenEnd) {
+            char current = json[index++];
+            if ('\\' != current) {
+                value.append(current);
+                continue;
+            }
+
+            char escaped = json[index++];
+            switch (escaped) {
+                case 'b':
+                    value.append('\b');
+                    break;
+
+                case 'f':
+                    value.append('\f');
+                    break;
+
+                case 'n':
+                    value.append('\n');
+                    break;
+
+                case 'r':
+                    value.append('\r');
+                    break;
+
+                case 't':
+                    value.append('\t');
+                    break;
+
+                case 'u':
+                    value.append((char) Integer.parseInt(new String(json, index, 4), 16));
+                    index += 4;
+                    break;
+
+                default:
+                    // '"', '\\' and '/'
+                    value.append(escaped);
+                    break;
+            }
+        }
+        return value.toString();
+    }
+
+    JsonLocation getLocation() {
+        long line = 1;
+        long column = 1;
+        for (int i = 0; i < position && i < length; i++) {
+            if ('\n' == json[i]) {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+        }
+        return new TokenizerLocation(line, column, position);
+    }
+
+    private Event value() {
+        skipWhitespaces();
+
+        char current = peek();
+        switch (current) {
+            case '[':
+                position++;
+                push(false);
+                state = FIRST_IN_ARRAY;
+                return event = Event.START_ARRAY;
+
+            case '{':
+                position++;
+                push(true);
+                state = FIRST_IN_OBJECT;
+                return event = Event.START_OBJECT;
+
+            case '"':
+                lexString();
+                event = Event.VALUE_STRING;
+                break;
+
+            case 't':
+                lexLiteral("true");
+                event = Event.VALUE_TRUE;
+                break;
+
+            case 'f':
+                lexLiteral("false");
+                event = Event.VALUE_FALSE;
+                break;
+
+            case 'n':
+                lexLiteral("null");
+                event = Event.VALUE_NULL;
+                break;
+
+            default:
+                if ('-' != current && (current < '0' || current > '9')) {
+                    throw unexpected("a value");
+                }
+                lexNumber();
+                event = Event.VALUE_NUMBER;
+                break;
+        }
+
+        state = depth == 0 ? END : AFTER_VALUE;
+        return event;
+    }
+
+    private Event key() {
+        skipWhitespaces();
+        if (peek() != '"') {
+            throw unexpected("a key");
+        }
+        lexString();
+
+        skipWhitespaces();
+        if (!consume(':')) {
+            throw unexpected("':'");
+        }
+
+        state = VALUE;
+        return event = Event.KEY_NAME;
+    }
+
+    private Event close() {
+        boolean object = objects[--depth];
+        state = depth == 0 ? END : AFTER_VALUE;
+        return event = object ? Event.END_OBJECT : Event.END_ARRAY;
+    }
+
+    private void push(boolean object) {
+        if (depth == objects.length) {
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+        objects[depth++] = object;
+    }
+
+    private void lexString() {
+        position++; // opening quote
+        tokenStart = position;
+        tokenEscaped = false;
+
+        while (position < length) {
+            char current = json[position];
+
+            if ('"' == current) {
+                tokenEnd = position++;
+                return;
+            }
+
+            if (current < 0x20) {
+                throw unexpected("an escaped control character");
+            }
+
+            position++;
+            if ('\\' == current) {
+                tokenEscaped = true;
+                char escaped = peek();
+                if ('u' == escaped) {
+                    position++;
+                    for (int i = 0; i < 4; i++) {
+                        if (Character.digit(peek(), 16) < 0) {
+                            throw unexpected("an hexadecimal digit");
+                        }
+                        position++;
+                    }
+                } else if ("\"\\/bfnrt".indexOf(escaped) >= 0 && position < length) {
+                    position++;
+                } else {
+                    throw unexpected("a valid escape sequence");
+                }
+            }
+        }
+
+        throw unexpected("'\"' to close the String");
+    }
+
+    private void lexLiteral(String literal) {
+        if (position + literal.length() > length) {
+            throw unexpected("'" + literal + "'");
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json[position + i] != literal.charAt(i)) {
+                throw unexpected("'" + literal + "'");
+            }
+        }
+        position += literal.length();
+    }
+
+    private void lexNumber() {
+        tokenStart = position;
+        tokenEscaped = false;
+
+        consume('-');
+        if (!consume('0')) {
+            if (!consumeDigits()) {
+                throw unexpected("a digit");
+            }
+        }
+        if (consume('.') && !consumeDigits()) {
+            throw unexpected("a digit");
+        }
+        if (consume('e') || consume('E')) {
+            if (!consume('+')) {
+                consume('-');
+            }
+            if (!consumeDigits()) {
+                throw unexpected("a digit");
+            }
+        }
+
+        tokenEnd = position;
+    }
+
+    private boolean consumeDigits() {
+        int start = position;
+        while (position < length && json[position] >= '0' && json[position] <= '9') {
+            position++;
+        }
+        return position > start;
+    }
+
+    // compares the current token with the given value without allocating, escaped tokens are decoded first
+    private boolean isToken(String value) {
+        if (tokenEscaped) {
+            return value.equals(getString());
+        }
+
+        int tokenLength = tokenEnd - tokenStart;
+        if (tokenLength != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < tokenLength; i++) {
+            if (json[tokenStart + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char firstTokenChar() {
+        return tokenEscaped ? getString().charAt(0) : json[tokenStart];
+    }
+
+    private void skipWhitespaces() {
+        while (position < length && isWhitespace(json[position])) {
+            position++;
+        }
+    }
+
+    private static boolean isWhitespace(char current) {
+        return ' ' == current || '\n' == current || '\r' == current || '\t' == current;
+    }
+
+    private char peek() {
+        return position < length ? json[position] : 0;
+    }
+
+    private boolean consume(char expected) {
+        if (position < length && json[position] == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private JsonParsingException unexpected(String expected) {
+        JsonLocation location = getLocation();
+        return new JsonParsingException("Expected " + expected + " at " + location, location);
+    }
+
+    private static final class TokenizerLocation implements JsonLocation {
+
+        private final long lineNumber;
+
+        private final long columnNumber;
+
+        private final long streamOffset;
+
+        TokenizerLocation(long lineNumber, long columnNumber, long streamOffset) {
+            this.lineNumber = lineNumber;
+            this.columnNumber = columnNumber;
+            this.streamOffset = streamOffset;
+        }
+
+        @Override
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        @Override
+        public long getColumnNumber() {
+            return columnNumber;
+        }
+
+        @Override
+        public long getStreamOffset() {
+            return streamOffset;
+        }
+
+        @Override
+        public String toString() {
+            return "(line no=" + lineNumber + ", column no=" + columnNumber + ", offset=" + streamOffset + ")";
+        }
+
+    }
+
+}
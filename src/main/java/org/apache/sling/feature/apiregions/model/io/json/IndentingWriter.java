@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Breaks lines and indents compact JSON while it is written,
+ * leaving string values untouched.
+ */
+final class IndentingWriter extends FilterWriter {
+
+    private final int indent;
+
+    private int depth;
+
+    private boolean inString;
+
+    private boolean escaped;
+
+    // an object/array has just been opened, the line break waits to know if it is empty
+    private boolean opened;
+
+    public IndentingWriter(Writer out, int indent) {
+        super(out);
+        this.indent = indent;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (inString) {
+            out.write(c);
+            if (escaped) {
+                escaped = false;
+            } else if ('\\' == c) {
+                escaped = true;
+            } else if ('"' == c) {
+                inString = false;
+            }
+            return;
+        }
+
+        if (opened) {
+            opened = false;
+            if ('}' == c || ']' == c) {
+                depth--;
+                out.write(c);
+                return;
+            }
+            newLine();
+        }
+
+        switch (c) {
+            case '{':
+            case '[':
+                out.write(c);
+                depth++;
+                opened = true;
+                break;
+
+            case '}':
+            case ']':
+                depth--;
+                newLine();
+                out.write(c);
+                break;
+
+            case ',':
+                out.write(c);
+                newLine();
+                break;
+
+            case '"':
+                inString = true;
+                out.write(c);
+                break;
+
+            default:
+                out.write(c);
+                break;
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(str.charAt(i));
+        }
+    }
+
+    private void newLine() throws IOException {
+        out.write('\n');
+        for (int i = 0; i < depth * indent; i++) {
+            out.write(' ');
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+
+/**
+ * <code>api-regions</code> parsed lazily, see {@link ApiRegionsJSONParser#parseApiRegionsLazily(String)}:
+ * region names and the position of their exports are indexed upfront,
+ * exports of a region are tokenized and validated only once the region, or one of its descendants, is requested.
+ *
+ * The upfront pass stops tokenizing exports at the first non-comment one and skips the rest of the array,
+ * so malformed entries following it are reported only when the region is materialized.
+ *
+ * Since a region inherits from all the ones declared before it, requesting a region
+ * materializes all of the regions which precede it.
+ *
+ * Instances are not thread-safe: materializing a region updates the regions already handed out,
+ * concurrent access has to be synchronized externally, or a {@link ApiRegions#freeze() frozen} snapshot
+ * of the fully materialized regions shared instead.
+ */
+public final class LazyApiRegions {
+
+    private final List<String> regionNames;
+
+    private final Map<String, Integer> regionIndexes;
+
+    private final int[] exportsOffsets;
+
+    private final ApiRegions apiRegions = new ApiRegions();
+
+    // released once all regions are materialized
+    private ApiRegionsJSONTokenizer tokenizer;
+
+    private int materialized;
+
+    LazyApiRegions(char[] json, int length) {
+        List<String> regionNames = new ArrayList<>();
+        List<Integer> exportsOffsets = new ArrayList<>();
+        Map<String, Integer> regionIndexes = new HashMap<>();
+
+        tokenizer = new ApiRegionsJSONTokenizer(json, length);
+        tokenizer.scanRegions((regionName, exportsOffset) -> {
+            if (regionIndexes.put(regionName, regionNames.size()) != null) {
+                throw new IllegalArgumentException("API Region '" + regionName + "' already exists, please specifying a different valid name");
+            }
+            regionNames.add(regionName);
+            exportsOffsets.add(exportsOffset);
+        });
+
+        this.regionNames = Collections.unmodifiableList(regionNames);
+        this.regionIndexes = regionIndexes;
+        this.exportsOffsets = new int[exportsOffsets.size()];
+        for (int i = 0; i < this.exportsOffsets.length; i++) {
+            this.exportsOffsets[i] = exportsOffsets.get(i);
+        }
+
+        releaseIfCompleted();
+    }
+
+    /**
+     * Returns the names of the declared regions, in the hierarchy order, without materializing them.
+     *
+     * @return the names of the declared regions, in the hierarchy order.
+     */
+    public List<String> getRegionNames() {
+        return regionNames;
+    }
+
+    /**
+     * Checks if any region is declared.
+     *
+     * @return true if there is at least one declared region, false otherwise.
+     */
+    public boolean isEmpty() {
+        return regionNames.isEmpty();
+    }
+
+    /**
+     * Search and returns, if declared, the region identified by the given name,
+     * materializing it together with its ancestors if not already done.
+     *
+     * @param regionName the name of the region to find
+     * @return the region identified by the passed name, null if not found or the name is null or empty
+     */
+    public ApiRegion getByName(String regionName) {
+        if (regionName == null || regionName.isEmpty()) {
+            return null;
+        }
+
+        Integer regionIndex = regionIndexes.get(regionName);
+        if (regionIndex == null) {
+            return null;
+        }
+
+        materialize(regionIndex);
+        return apiRegions.getByName(regionName);
+    }
+
+    /**
+     * Materializes all the declared regions.
+     *
+     * @return the in-memory representation of all the declared <code>api-regions</code>.
+     */
+    public ApiRegions getApiRegions() {
+        materialize(regionNames.size() - 1);
+        return apiRegions;
+    }
+
+    ApiRegions getApiRegions(Predicate<String> regionFilter) {
+        for (int regionIndex = regionNames.size() - 1; regionIndex >= materialized; regionIndex--) {
+            if (regionFilter.test(regionNames.get(regionIndex))) {
+                materialize(regionIndex);
+                break;
+            }
+        }
+        return apiRegions;
+    }
+
+    /**
+     * Checks if the region identified by the given name has been already materialized.
+     *
+     * @param regionName the name of the region to check
+     * @return true if the region has been already materialized, false otherwise.
+     */
+    public boolean isMaterialized(String regionName) {
+        Integer regionIndex = regionIndexes.get(regionName);
+        return regionIndex != null && regionIndex < materialized;
+    }
+
+    private void materialize(int regionIndex) {
+        for (; materialized <= regionIndex; materialized++) {
+            ApiRegion apiRegion = apiRegions.addNew(regionNames.get(materialized));
+            tokenizer.readExports(exportsOffsets[materialized], apiRegion::add);
+        }
+
+        releaseIfCompleted();
+    }
+
+    private void releaseIfCompleted() {
+        if (materialized == regionNames.size()) {
+            tokenizer = null;
+        }
+    }
+
+}
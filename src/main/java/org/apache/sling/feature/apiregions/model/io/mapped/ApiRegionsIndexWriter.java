@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.mapped;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+
+/**
+ * Writes the <code>api-regions</code> index file which can be queried in place by {@link MappedApiRegions}.
+ */
+public final class ApiRegionsIndexWriter implements IndexConstants {
+
+    private ApiRegionsIndexWriter() {
+        // this class must not be instantiated from outside
+    }
+
+    /**
+     * Writes the index of the input <code>api-regions</code> to the target file, replacing it if already existing.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be indexed
+     * @param target the target index file
+     * @throws IOException if any error occurs while writing the file
+     */
+    public static void writeIndex(ApiRegions apiRegions, Path target) throws IOException {
+        requireNonNull(target, "Impossible to write the api-regions index to a null file");
+        Files.write(target, buildIndex(apiRegions));
+    }
+
+    /**
+     * Writes the index of the input <code>api-regions</code> to the target stream.
+     *
+     * The stream is neither flushed nor closed.
+     *
+     * @param apiRegions the <code>api-regions</code> has to be indexed
+     * @param output the target stream where writing the index
+     * @throws IOException if any error occurs while writing to the stream
+     */
+    public static void writeIndex(ApiRegions apiRegions, OutputStream output) throws IOException {
+        requireNonNull(output, "Impossible to write the api-regions index to a null stream");
+        output.write(buildIndex(apiRegions));
+    }
+
+    private static byte[] buildIndex(ApiRegions apiRegions) {
+        requireNonNull(apiRegions, "Impossible to index null api-regions");
+
+        List<String> names = new ArrayList<>();
+        List<String[]> exports = new ArrayList<>();
+        // API package -> first exporting region, in hierarchy order
+        Map<String, Integer> definingRegions = new LinkedHashMap<>();
+        // string -> its UTF-8 bytes
+        Map<String, byte[]> strings = new LinkedHashMap<>();
+
+        int exportsCount = 0;
+        for (ApiRegion apiRegion : apiRegions) {
+            int regionIndex = names.size();
+            names.add(apiRegion.getName());
+            strings.computeIfAbsent(apiRegion.getName(), ApiRegionsIndexWriter::toBytes);
+
+            List<String> regionExports = new ArrayList<>();
+            for (String api : apiRegion.getExports()) {
+                strings.computeIfAbsent(api, ApiRegionsIndexWriter::toBytes);
+                regionExports.add(api);
+                definingRegions.putIfAbsent(api, regionIndex);
+            }
+
+            String[] sortedExports = regionExports.toArray(new String[0]);
+            Arrays.sort(sortedExports, (left, right) -> IndexUtils.compare(strings.get(left), strings.get(right)));
+            exports.add(sortedExports);
+            exportsCount += sortedExports.length;
+        }
+
+        int slots = 2;
+        while (slots < definingRegions.size() * 2) {
+            slots <<= 1;
+        }
+
+        int regionsOffset = HEADER_SIZE;
+        int exportsOffset = regionsOffset + names.size() * REGION_ENTRY_SIZE;
+        int hashTableOffset = exportsOffset + exportsCount * Integer.BYTES;
+        int stringsOffset = hashTableOffset + slots * SLOT_SIZE;
+
+        // strings are laid out first, all the tables refer to their offsets
+        Map<String, Integer> stringOffsets = new LinkedHashMap<>();
+        int size = stringsOffset;
+        for (Entry<String, byte[]> string : strings.entrySet()) {
+            stringOffsets.put(string.getKey(), size);
+            size += Integer.BYTES + string.getValue().length;
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(size);
+        index.putInt(MAGIC)
+             .putInt(VERSION)
+             .putInt(names.size())
+             .putInt(hashTableOffset)
+             .putInt(slots);
+
+        int exportsTableOffset = exportsOffset;
+        for (int regionIndex = 0; regionIndex < names.size(); regionIndex++) {
+            String[] regionExports = exports.get(regionIndex);
+
+            index.putInt(regionsOffset + regionIndex * REGION_ENTRY_SIZE, stringOffsets.get(names.get(regionIndex)))
+                 .putInt(regionsOffset + regionIndex * REGION_ENTRY_SIZE + Integer.BYTES, regionExports.length)
+                 .putInt(regionsOffset + regionIndex * REGION_ENTRY_SIZE + 2 * Integer.BYTES, exportsTableOffset);
+
+            for (String api : regionExports) {
+                index.putInt(exportsTableOffset, stringOffsets.get(api));
+                exportsTableOffset += Integer.BYTES;
+            }
+        }
+
+        int mask = slots - 1;
+        for (Entry<String, Integer> definingRegion : definingRegions.entrySet()) {
+            byte[] api = strings.get(definingRegion.getKey());
+
+            int slot = IndexUtils.hash(api) & mask;
+            while (index.getInt(hashTableOffset + slot * SLOT_SIZE) != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            index.putInt(hashTableOffset + slot * SLOT_SIZE, stringOffsets.get(definingRegion.getKey()) + 1)
+                 .putInt(hashTableOffset + slot * SLOT_SIZE + Integer.BYTES, definingRegion.getValue());
+        }
+
+        for (Entry<String, byte[]> string : strings.entrySet()) {
+            int offset = stringOffsets.get(string.getKey());
+            index.putInt(offset, string.getValue().length);
+            index.position(offset + Integer.BYTES);
+            index.put(string.getValue());
+        }
+
+        return index.array();
+    }
+
+    private static byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.mapped;
+
+/**
+ * The <code>api-regions</code> index file layout, all numbers are big-endian 32 bits integers:
+ *
+ * <pre>
+ * header       magic 'A' 'P' 'I' 'X', version, regions count, hash table offset, hash table slots
+ * regions      for each region: name offset, exports count, exports table offset
+ * exports      for each region: the offsets of its API packages, sorted by their UTF-8 bytes
+ * hash table   for each slot: API package offset + 1 (0 for empty slots), index of the first exporting region
+ * strings      for each string: UTF-8 length, UTF-8 bytes
+ * </pre>
+ *
+ * Offsets are absolute positions in the file; the hash table is open addressing with linear probing,
+ * keyed by the FNV-1a hash of the API package UTF-8 bytes.
+ */
+interface IndexConstants {
+
+    public static final int MAGIC = 0x41504958; // APIX
+
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    public static final int REGION_ENTRY_SIZE = 3 * Integer.BYTES;
+
+    public static final int SLOT_SIZE = 2 * Integer.BYTES;
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.mapped;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+final class IndexUtils {
+
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+
+    private static final int FNV_PRIME = 0x01000193;
+
+    private IndexUtils() {
+        // this class must not be instantiated from outside
+    }
+
+    static int hash(byte[] bytes) {
+        int hash = FNV_OFFSET_BASIS;
+        for (byte current : bytes) {
+            hash ^= current & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    static int compare(byte[] left, byte[] right) {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int result = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return left.length - right.length;
+    }
+
+    /**
+     * Compares the string stored at the given offset with the given UTF-8 bytes, without copying it.
+     */
+    static int compare(ByteBuffer buffer, int offset, byte[] value) {
+        int length = buffer.getInt(offset);
+        int start = offset + Integer.BYTES;
+
+        int common = Math.min(length, value.length);
+        for (int i = 0; i < common; i++) {
+            int result = (buffer.get(start + i) & 0xFF) - (value[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return length - value.length;
+    }
+
+    static String readString(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset + Integer.BYTES);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.mapped;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Read-only <code>api-regions</code> section, backed by the index of the owning {@link MappedApiRegions}.
+ *
+ * API packages are decoded only when iterated.
+ */
+public final class MappedApiRegion implements Iterable<String> {
+
+    private final MappedApiRegions owner;
+
+    private final String name;
+
+    private final MappedApiRegion parent;
+
+    private final int regionIndex;
+
+    private final List<String> exports;
+
+    MappedApiRegion(MappedApiRegions owner, String name, MappedApiRegion parent, int regionIndex, int exportsCount, int exportsOffset) {
+        this.owner = owner;
+        this.name = name;
+        this.parent = parent;
+        this.regionIndex = regionIndex;
+        this.exports = new Exports(owner.getIndex(), exportsCount, exportsOffset);
+    }
+
+    /**
+     * Returns the name identifying this API region.
+     *
+     * @return the name identifying this API region.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the parent API region which is extended,
+     * <code>null</code> if this region represents the first section in the regions.
+     *
+     * @return the parent API region which is extended,
+     * <code>null</code> if this region represents the first section in the regions.
+     */
+    public MappedApiRegion getParent() {
+        return parent;
+    }
+
+    /**
+     * Checks if the input API is stored only in this region.
+     *
+     * @param api the API package to check
+     * @return true if the API is stored in this region, false otherwise.
+     */
+    public boolean exports(String api) {
+        if (api == null || api.isEmpty()) {
+            return false;
+        }
+
+        return ((Exports) exports).binarySearch(api.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    /**
+     * Check is the region contains, across the whole region hierarchy,
+     * if the input API package is contained.
+     *
+     * @param api the API package to check
+     * @return true, if the API package is contained by this (or parents) region, false otherwise.
+     */
+    public boolean contains(String api) {
+        MappedApiRegion definingRegion = owner.getRegionOf(api);
+        return definingRegion != null && definingRegion.regionIndex <= regionIndex;
+    }
+
+    /**
+     * Check if this region, across the whole region hierarchy, contains any API.
+     *
+     * @return true if this region, across the whole region hierarchy, contains any API, false otherwise.
+     */
+    public boolean isEmpty() {
+        return exports.isEmpty() && (parent == null || parent.isEmpty());
+    }
+
+    /**
+     * Returns the API packages that are stored only in this region, sorted by their UTF-8 representation.
+     *
+     * @return the API packages that are stored only in this region, decoded on access.
+     */
+    public List<String> getExports() {
+        return exports;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+
+            private MappedApiRegion region = MappedApiRegion.this;
+
+            private Iterator<String> current = region.exports.iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    region = region.parent;
+                    if (region == null) {
+                        return false;
+                    }
+                    current = region.exports.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "Mapped region '" + name + "'" + (parent != null ? " inherits from '" + parent.getName() + "'" : "");
+    }
+
+    private static final class Exports extends AbstractList<String> implements RandomAccess {
+
+        private final ByteBuffer index;
+
+        private final int size;
+
+        private final int offset;
+
+        public Exports(ByteBuffer index, int size, int offset) {
+            this.index = index;
+            this.size = size;
+            this.offset = offset;
+        }
+
+        @Override
+        public String get(int position) {
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+            }
+            return IndexUtils.readString(index, stringOffset(position));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        int binarySearch(byte[] api) {
+            int low = 0;
+            int high = size - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int result = IndexUtils.compare(index, stringOffset(middle), api);
+
+                if (result < 0) {
+                    low = middle + 1;
+                } else if (result > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+
+            return -(low + 1);
+        }
+
+        private int stringOffset(int position) {
+            return index.getInt(offset + position * Integer.BYTES);
+        }
+
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.mapped;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only <code>api-regions</code> view which answers queries directly from an index file
+ * written by {@link ApiRegionsIndexWriter}, without materializing the API packages on the heap.
+ *
+ * When the index file is memory-mapped, the OS page cache shares it across processes.
+ * Instances are immutable and can be queried concurrently by any number of threads.
+ */
+public final class MappedApiRegions implements Iterable<MappedApiRegion>, IndexConstants {
+
+    private final ByteBuffer index;
+
+    private final List<MappedApiRegion> regions;
+
+    private final Map<String, MappedApiRegion> regionsByName = new HashMap<>();
+
+    private final int hashTableOffset;
+
+    private final int slotsMask;
+
+    private MappedApiRegions(ByteBuffer index) {
+        this.index = index;
+
+        if (index.limit() < HEADER_SIZE || MAGIC != index.getInt(0)) {
+            throw new IllegalArgumentException("Input buffer is not an api-regions index");
+        }
+        if (VERSION != index.getInt(Integer.BYTES)) {
+            throw new IllegalArgumentException("Unsupported api-regions index version " + index.getInt(Integer.BYTES));
+        }
+
+        MappedApiRegion[] regions = new MappedApiRegion[index.getInt(2 * Integer.BYTES)];
+        MappedApiRegion parent = null;
+        for (int i = 0; i < regions.length; i++) {
+            int entry = HEADER_SIZE + i * REGION_ENTRY_SIZE;
+            regions[i] = new MappedApiRegion(this,
+                                             IndexUtils.readString(index, index.getInt(entry)),
+                                             parent,
+                                             i,
+                                             index.getInt(entry + Integer.BYTES),
+                                             index.getInt(entry + 2 * Integer.BYTES));
+            regionsByName.put(regions[i].getName(), regions[i]);
+            parent = regions[i];
+        }
+        this.regions = Collections.unmodifiableList(Arrays.asList(regions));
+
+        hashTableOffset = index.getInt(3 * Integer.BYTES);
+        slotsMask = index.getInt(4 * Integer.BYTES) - 1;
+    }
+
+    /**
+     * Memory-maps the given index file, read-only.
+     *
+     * @param indexFile the index file written by {@link ApiRegionsIndexWriter}
+     * @return the read-only <code>api-regions</code> view over the mapped file
+     * @throws IOException if any error occurs while mapping the file
+     */
+    public static MappedApiRegions map(Path indexFile) throws IOException {
+        requireNonNull(indexFile, "Impossible to map a null api-regions index file");
+
+        // the mapping stays valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            return new MappedApiRegions(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Wraps an index already loaded in memory.
+     *
+     * The index is read from the buffer current position up to its limit,
+     * the buffer content must not be changed after this call.
+     *
+     * @param index the index, as written by {@link ApiRegionsIndexWriter}
+     * @return the read-only <code>api-regions</code> view over the buffer
+     */
+    public static MappedApiRegions wrap(ByteBuffer index) {
+        requireNonNull(index, "Impossible to wrap a null api-regions index");
+        // offsets in the index are relative to its start, and numbers are big-endian regardless of the buffer order
+        return new MappedApiRegions(index.slice());
+    }
+
+    /**
+     * Search and returns, if found, the region identified by the given name.
+     *
+     * @param regionName the name of the region to find
+     * @return the region identified by the passed name, null if not found or the name is null or empty
+     */
+    public MappedApiRegion getByName(String regionName) {
+        if (regionName == null || regionName.isEmpty()) {
+            return null;
+        }
+
+        return regionsByName.get(regionName);
+    }
+
+    /**
+     * Search and returns, if found, the first region in the hierarchy which exports the given API package.
+     *
+     * @param api the API package to look for
+     * @return the first region in the hierarchy which exports the passed API package,
+     * null if not found or the API package is null or empty
+     */
+    public MappedApiRegion getRegionOf(String api) {
+        if (api == null || api.isEmpty()) {
+            return null;
+        }
+
+        byte[] key = api.getBytes(StandardCharsets.UTF_8);
+
+        int slot = IndexUtils.hash(key) & slotsMask;
+        int entry;
+        while ((entry = index.getInt(hashTableOffset + slot * SLOT_SIZE)) != 0) {
+            if (IndexUtils.compare(index, entry - 1, key) == 0) {
+                return regions.get(index.getInt(hashTableOffset + slot * SLOT_SIZE + Integer.BYTES));
+            }
+            slot = (slot + 1) & slotsMask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if any region is present
+     *
+     * @return true if there is at least one declared region, false otherwise.
+     */
+    public boolean isEmpty() {
+        return regions.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<MappedApiRegion> iterator() {
+        return regions.iterator();
+    }
+
+    ByteBuffer getIndex() {
+        return index;
+    }
+
+}
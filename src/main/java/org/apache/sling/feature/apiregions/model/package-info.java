@@ -18,5 +18,5 @@
 /**
  * Basic <code>api-regions</code> APIs.
  */
-@org.osgi.annotation.versioning.Version("1.0.0")
+@org.osgi.annotation.versioning.Version("1.1.0")
 package org.apache.sling.feature.apiregions.model;
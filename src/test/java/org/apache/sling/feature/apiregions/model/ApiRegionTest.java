@@ -16,13 +16,21 @@
  */
 package org.apache.sling.feature.apiregions.model;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import org.apache.sling.feature.apiregions.model.ApiRegion;
 import org.junit.Test;
@@ -155,4 +163,118 @@ public class ApiRegionTest {
         assertTrue("Expected all packages removed, still found" + packages, packages.isEmpty());
     }
 
+    @Test
+    public void indexedEffectiveExportsFollowHierarchyChanges() {
+        ApiRegion granpa = new ApiRegion("granpa", null);
+        granpa.add("org.apache.sling.feature.apiregions");
+
+        ApiRegion father = new ApiRegion("father", granpa);
+        father.add("org.apache.sling.feature.apiregions.io");
+
+        ApiRegion child = new ApiRegion("child", father);
+        child.indexEffectiveExports();
+
+        assertTrue(child.contains("org.apache.sling.feature.apiregions")); // inherited by granpa
+        assertTrue(child.contains("org.apache.sling.feature.apiregions.io")); // inherited by father
+
+        assertTrue(granpa.add("org.apache.sling.feature.apiregions.io.json"));
+        assertTrue(child.contains("org.apache.sling.feature.apiregions.io.json")); // added later to granpa
+        assertFalse(child.add("org.apache.sling.feature.apiregions.io.json"));
+
+        assertTrue(child.remove("org.apache.sling.feature.apiregions"));
+        assertFalse(child.contains("org.apache.sling.feature.apiregions"));
+
+        // granpa adds a package already exported by father, removing it from granpa keeps it visible
+        assertTrue(granpa.add("org.apache.sling.feature.apiregions.io"));
+        assertTrue(granpa.remove("org.apache.sling.feature.apiregions.io"));
+        assertTrue(child.contains("org.apache.sling.feature.apiregions.io"));
+
+        // father adds a package already exported by child, removing it from child keeps it visible
+        assertTrue(child.add("org.apache.sling.feature.apiregions.spi"));
+        assertTrue(father.add("org.apache.sling.feature.apiregions.spi"));
+        assertTrue(child.remove("org.apache.sling.feature.apiregions.spi"));
+        assertTrue(child.contains("org.apache.sling.feature.apiregions.spi"));
+    }
+
+    @Test
+    public void streamDistinctDropsPackagesExportedAcrossTheHierarchy() {
+        ApiRegions apiRegions = new ApiRegions();
+        ApiRegion global = apiRegions.addNew("global");
+        ApiRegion internal = apiRegions.addNew("internal");
+
+        assertTrue(internal.add("org.apache.sling.feature.apiregions"));
+        // the parent may still add a package already exported by a child
+        assertTrue(global.add("org.apache.sling.feature.apiregions"));
+
+        assertEquals(2, internal.stream().count());
+        assertEquals(1, internal.stream().distinct().count());
+        assertEquals(1, internal.parallelStream().distinct().count());
+    }
+
+    @Test
+    public void iteratorDoesNotRequireHasNext() {
+        ApiRegion father = new ApiRegion("father", null);
+        father.add("org.apache.sling.feature.apiregions");
+
+        ApiRegion empty = new ApiRegion("empty", father);
+        ApiRegion child = new ApiRegion("child", empty);
+        child.add("org.apache.sling.feature.apiregions.io");
+
+        Set<String> packages = new HashSet<>();
+        Iterator<String> iterator = child.iterator();
+        packages.add(iterator.next());
+        packages.add(iterator.next());
+        assertFalse(iterator.hasNext());
+
+        assertTrue(packages.contains("org.apache.sling.feature.apiregions"));
+        assertTrue(packages.contains("org.apache.sling.feature.apiregions.io"));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void exhaustedIteratorFails() {
+        new ApiRegion("empty", null).iterator().next();
+    }
+
+    @Test
+    public void parallelStreamOverHierarchy() {
+        ApiRegion parent = null;
+        Set<String> expected = new HashSet<>();
+        for (int region = 0; region < 10; region++) {
+            parent = new ApiRegion("region" + region, parent);
+            for (int api = 0; api < 100; api++) {
+                String name = "org.apache.sling.region" + region + ".api" + api;
+                parent.add(name);
+                expected.add(name);
+            }
+        }
+
+        Spliterator<String> spliterator = parent.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+        assertEquals(expected.size(), spliterator.getExactSizeIfKnown());
+
+        Set<String> actual = StreamSupport.stream(parent.spliterator(), true).collect(Collectors.toSet());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void sortedExportsAreCachedUntilChanged() {
+        ApiRegion region = new ApiRegion("region", null);
+        region.add("org.apache.sling.feature.apiregions.io");
+        region.add("org.apache.sling.feature.apiregions");
+
+        List<String> sorted = region.getSortedExports();
+        assertEquals(Arrays.asList("org.apache.sling.feature.apiregions", "org.apache.sling.feature.apiregions.io"), sorted);
+        assertSame(sorted, region.getSortedExports());
+
+        region.add("org.apache.sling.feature");
+        assertEquals(Arrays.asList("org.apache.sling.feature",
+                                   "org.apache.sling.feature.apiregions",
+                                   "org.apache.sling.feature.apiregions.io"), region.getSortedExports());
+
+        region.remove("org.apache.sling.feature.apiregions");
+        assertEquals(Arrays.asList("org.apache.sling.feature", "org.apache.sling.feature.apiregions.io"), region.getSortedExports());
+    }
+
 }
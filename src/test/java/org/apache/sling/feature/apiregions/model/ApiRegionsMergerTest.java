@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ApiRegionsMergerTest {
+
+    @Test(expected = NullPointerException.class)
+    public void nullInputsNotAccepted() {
+        ApiRegionsMerger.merge(null);
+    }
+
+    @Test
+    public void emptyInputs() {
+        assertTrue(ApiRegionsMerger.merge(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void sameNamedRegionsAreUnited() {
+        ApiRegions first = new ApiRegions();
+        first.addNew("global").add("org.apache.felix.inventory");
+        first.addNew("internal").add("org.apache.felix.scr.info");
+
+        ApiRegions second = new ApiRegions();
+        second.addNew("global").add("org.apache.felix.metatype");
+        second.addNew("deprecated").add("org.apache.felix.webconsole");
+        // defined by 'global' in the merged api-regions
+        second.getByName("deprecated").add("org.apache.felix.inventory");
+
+        ApiRegions merged = ApiRegionsMerger.merge(Arrays.asList(first, second));
+
+        List<String> regionNames = new ArrayList<>();
+        for (ApiRegion apiRegion : merged) {
+            regionNames.add(apiRegion.getName());
+        }
+        assertEquals(Arrays.asList("global", "internal", "deprecated"), regionNames);
+
+        ApiRegion global = merged.getByName("global");
+        assertEquals(Arrays.asList("org.apache.felix.inventory", "org.apache.felix.metatype"), global.getSortedExports());
+        assertSame(global, merged.getRegionOf("org.apache.felix.inventory"));
+        assertFalse(merged.getByName("deprecated").exports("org.apache.felix.inventory"));
+        assertTrue(merged.getByName("deprecated").contains("org.apache.felix.scr.info"));
+    }
+
+    @Test
+    public void manyInputsMergedInParallel() {
+        List<ApiRegions> inputs = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            ApiRegions apiRegions = new ApiRegions();
+            apiRegions.addNew("global").add("org.apache.sling.feature" + i);
+            apiRegions.addNew("region" + (i % 8)).add("org.apache.sling.internal" + i);
+            inputs.add(apiRegions);
+        }
+
+        ApiRegions merged = ApiRegionsMerger.merge(inputs);
+
+        assertEquals(64, merged.getByName("global").getSortedExports().size());
+        for (int i = 0; i < 64; i++) {
+            assertSame(merged.getByName("region" + (i % 8)), merged.getRegionOf("org.apache.sling.internal" + i));
+        }
+        assertNull(merged.getByName("region8"));
+
+        // regions are ordered as first seen
+        ApiRegion apiRegion = merged.getByName("region7");
+        for (int i = 6; i >= 0; i--) {
+            apiRegion = apiRegion.getParent();
+            assertEquals("region" + i, apiRegion.getName());
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.sling.feature.apiregions.model.ApiRegion;
 import org.apache.sling.feature.apiregions.model.ApiRegions;
@@ -116,4 +117,59 @@ public class ApiRegionsTest {
         apiRegions.addNew("granpa");
     }
 
+    @Test
+    public void impossibleToGetRegionOfNullOrEmptyApi() {
+        apiRegions.addNew("granpa").add("org.apache.sling.feature.apiregions");
+
+        assertNull(apiRegions.getRegionOf(null));
+        assertNull(apiRegions.getRegionOf(""));
+        assertNull(apiRegions.getRegionOf("does.not.exist"));
+    }
+
+    @Test
+    public void regionOfFollowsAddAndRemove() {
+        ApiRegion granpa = apiRegions.addNew("granpa");
+        granpa.add("org.apache.sling.feature.apiregions");
+
+        ApiRegion father = apiRegions.addNew("father");
+        father.add("org.apache.sling.feature.apiregions.io");
+
+        ApiRegion child = apiRegions.addNew("child");
+        child.add("org.apache.sling.feature.apiregions.io.json");
+
+        assertSame(granpa, apiRegions.getRegionOf("org.apache.sling.feature.apiregions"));
+        assertSame(father, apiRegions.getRegionOf("org.apache.sling.feature.apiregions.io"));
+        assertSame(child, apiRegions.getRegionOf("org.apache.sling.feature.apiregions.io.json"));
+
+        // granpa now exports what the child already did
+        assertTrue(granpa.add("org.apache.sling.feature.apiregions.io.json"));
+        assertSame(granpa, apiRegions.getRegionOf("org.apache.sling.feature.apiregions.io.json"));
+
+        assertTrue(granpa.remove("org.apache.sling.feature.apiregions.io.json"));
+        assertSame(child, apiRegions.getRegionOf("org.apache.sling.feature.apiregions.io.json"));
+        assertFalse(father.contains("org.apache.sling.feature.apiregions.io.json"));
+        assertTrue(child.contains("org.apache.sling.feature.apiregions.io.json"));
+
+        assertTrue(child.remove("org.apache.sling.feature.apiregions"));
+        assertNull(apiRegions.getRegionOf("org.apache.sling.feature.apiregions"));
+    }
+
+    @Test
+    public void streamingRegionsAndExports() {
+        ApiRegion granpa = apiRegions.addNew("granpa");
+        granpa.add("org.apache.sling.feature.apiregions");
+
+        ApiRegion father = apiRegions.addNew("father");
+        father.add("org.apache.sling.feature.apiregions.io");
+
+        assertEquals(Arrays.asList("granpa", "father"),
+                     apiRegions.stream().map(ApiRegion::getName).collect(Collectors.toList()));
+        assertEquals(2, apiRegions.parallelStream().count());
+
+        assertEquals(2, father.parallelStream().count());
+        assertEquals(2, father.stream().distinct().count());
+        assertEquals(Arrays.asList("org.apache.sling.feature.apiregions.io"),
+                     father.exportsStream().collect(Collectors.toList()));
+    }
+
 }
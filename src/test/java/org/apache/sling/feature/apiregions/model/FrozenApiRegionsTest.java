@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrozenApiRegionsTest {
+
+    private ApiRegions apiRegions;
+
+    private FrozenApiRegions frozen;
+
+    @Before
+    public void setUp() {
+        apiRegions = new ApiRegions();
+
+        ApiRegion granpa = apiRegions.addNew("granpa");
+        granpa.add("org.apache.sling.feature.apiregions");
+
+        ApiRegion father = apiRegions.addNew("father");
+        father.add("org.apache.sling.feature.apiregions.io.json");
+        father.add("org.apache.sling.feature.apiregions.io");
+
+        apiRegions.addNew("child");
+
+        frozen = apiRegions.freeze();
+    }
+
+    @Test
+    public void hierarchyIsPreserved() {
+        FrozenApiRegion granpa = frozen.getByName("granpa");
+        FrozenApiRegion father = frozen.getByName("father");
+        FrozenApiRegion child = frozen.getByName("child");
+
+        assertNull(granpa.getParent());
+        assertSame(granpa, father.getParent());
+        assertSame(father, child.getParent());
+
+        assertEquals(Arrays.asList("granpa", "father", "child"),
+                     frozen.stream().map(FrozenApiRegion::getName).collect(Collectors.toList()));
+
+        assertNull(frozen.getByName(null));
+        assertNull(frozen.getByName("does-not-exist"));
+    }
+
+    @Test
+    public void containsAcrossTheHierarchy() {
+        FrozenApiRegion granpa = frozen.getByName("granpa");
+        FrozenApiRegion child = frozen.getByName("child");
+
+        assertTrue(child.contains("org.apache.sling.feature.apiregions"));
+        assertTrue(child.contains("org.apache.sling.feature.apiregions.io"));
+        assertFalse(child.exports("org.apache.sling.feature.apiregions.io"));
+        assertFalse(granpa.contains("org.apache.sling.feature.apiregions.io"));
+        assertFalse(child.contains(null));
+        assertFalse(child.isEmpty());
+
+        assertSame(granpa, frozen.getRegionOf("org.apache.sling.feature.apiregions"));
+    }
+
+    @Test
+    public void exportsAreSorted() {
+        assertEquals(Arrays.asList("org.apache.sling.feature.apiregions.io", "org.apache.sling.feature.apiregions.io.json"),
+                     frozen.getByName("father").getExports());
+    }
+
+    @Test
+    public void iteratingOverEffectiveExports() {
+        Set<String> expected = new HashSet<>(Arrays.asList("org.apache.sling.feature.apiregions",
+                                                           "org.apache.sling.feature.apiregions.io",
+                                                           "org.apache.sling.feature.apiregions.io.json"));
+
+        Set<String> actual = new HashSet<>();
+        for (String api : frozen.getByName("child")) {
+            actual.add(api);
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(expected, frozen.getByName("child").parallelStream().collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByChanges() {
+        apiRegions.getByName("child").add("org.apache.sling.feature.apiregions.model");
+        apiRegions.getByName("granpa").remove("org.apache.sling.feature.apiregions");
+
+        assertFalse(frozen.getByName("child").contains("org.apache.sling.feature.apiregions.model"));
+        assertTrue(frozen.getByName("child").contains("org.apache.sling.feature.apiregions"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void exportsCanNotBeModified() {
+        frozen.getByName("granpa").getExports().add("org.apache.sling");
+    }
+
+}
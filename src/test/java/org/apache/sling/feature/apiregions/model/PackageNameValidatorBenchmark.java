@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the single pass {@link PackageNameValidator} against the former regex + tokenizer validation.
+ *
+ * Run it from the IDE, or via <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.apache.sling.feature.apiregions.model.PackageNameValidatorBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageNameValidatorBenchmark {
+
+    private static final Pattern PACKAGE_NAME_VALIDATION =
+            Pattern.compile("^[a-z]+(\\.[a-zA-Z_][a-zA-Z0-9_]*)*$");
+
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "abstract", "continue", "for", "new", "switch", "assert", "default", "package",
+            "synchronized", "boolean", "do", "if", "private", "this", "break", "double",
+            "implements", "protected", "throw", "byte", "else", "import", "public", "throws",
+            "case", "enum", "instanceof", "return", "transient", "catch", "extends", "int",
+            "short", "try", "char", "final", "interface", "static", "void", "class", "finally",
+            "long", "strictfp", "volatile", "float", "native", "super", "while"));
+
+    private final String[] packages = {
+        "org.apache.sling.feature.apiregions.model",
+        "org.apache.felix.scr.component",
+        "javax.jms.doc-files",
+        "org.apache.commons.lang.enum",
+        "com.acme.platform.internal.impl.util",
+        "1inv4l1d.package"
+    };
+
+    @Benchmark
+    public void regexAndTokenizer(Blackhole blackhole) {
+        for (String api : packages) {
+            blackhole.consume(legacyIsValid(api));
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String api : packages) {
+            blackhole.consume(PackageNameValidator.isValid(api));
+        }
+    }
+
+    private static boolean legacyIsValid(String api) {
+        if (api == null || api.isEmpty() || !PACKAGE_NAME_VALIDATION.matcher(api).matches()) {
+            return false;
+        }
+
+        StringTokenizer tokenizer = new StringTokenizer(api, ".");
+        while (tokenizer.hasMoreTokens()) {
+            if (KEYWORDS.contains(tokenizer.nextToken())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                   .include(PackageNameValidatorBenchmark.class.getSimpleName())
+                   .build())
+        .run();
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PackageNameValidatorTest {
+
+    @Test
+    public void acceptWellFormedPackages() {
+        assertTrue(PackageNameValidator.isValid("org"));
+        assertTrue(PackageNameValidator.isValid("org.apache.sling.feature.apiregions"));
+        assertTrue(PackageNameValidator.isValid("org.apache.Sling_2._feature"));
+        assertTrue(PackageNameValidator.isValid("javax.jms.interfaces"));
+    }
+
+    @Test
+    public void rejectNullOrEmpty() {
+        assertFalse(PackageNameValidator.isValid(null));
+        assertFalse(PackageNameValidator.isValid(""));
+    }
+
+    @Test
+    public void rejectMalformedPackages() {
+        assertFalse(PackageNameValidator.isValid("1inv4l1d.package"));
+        assertFalse(PackageNameValidator.isValid("Org.apache"));
+        assertFalse(PackageNameValidator.isValid("org_apache.sling"));
+        assertFalse(PackageNameValidator.isValid("javax.jms.doc-files"));
+        assertFalse(PackageNameValidator.isValid("org.apache.2sling"));
+        assertFalse(PackageNameValidator.isValid(".org.apache"));
+        assertFalse(PackageNameValidator.isValid("org..apache"));
+        assertFalse(PackageNameValidator.isValid("org.apache."));
+        assertFalse(PackageNameValidator.isValid("org.apache.sling\n"));
+    }
+
+    @Test
+    public void rejectReservedKeywords() {
+        assertFalse(PackageNameValidator.isValid("org.apache.commons.lang.enum"));
+        assertFalse(PackageNameValidator.isValid("int.apache"));
+        assertFalse(PackageNameValidator.isValid("org.synchronized.sling"));
+        assertFalse(PackageNameValidator.isValid("org.do"));
+        assertTrue(PackageNameValidator.isValid("org.enums"));
+        assertTrue(PackageNameValidator.isValid("org.Enum"));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.junit.Test;
+
+public class ApiPackageMatcherTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptySegmentNotAccepted() {
+        ApiPackageMatcher.compile("org..felix");
+    }
+
+    @Test
+    public void singleSegmentWildcard() {
+        ApiPackageMatcher matcher = ApiPackageMatcher.compile("org.apache.felix.*");
+
+        assertTrue(matcher.matches("org.apache.felix.inventory"));
+        assertFalse(matcher.matches("org.apache.felix"));
+        assertFalse(matcher.matches("org.apache.felix.scr.info"));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void anySegmentsWildcard() {
+        ApiPackageMatcher matcher = ApiPackageMatcher.compile("com.acme.**.impl");
+
+        assertTrue(matcher.matches("com.acme.impl"));
+        assertTrue(matcher.matches("com.acme.foo.impl"));
+        assertTrue(matcher.matches("com.acme.foo.bar.impl"));
+        assertFalse(matcher.matches("com.acme.foo.impl.api"));
+        assertFalse(matcher.matches("com.acme"));
+
+        assertTrue(ApiPackageMatcher.compile("**").matches("org.apache.felix"));
+        assertTrue(ApiPackageMatcher.compile("org.**").matches("org"));
+    }
+
+    @Test
+    public void partialSegmentWildcard() {
+        ApiPackageMatcher matcher = ApiPackageMatcher.compile("org.apache.felix.*.impl*");
+
+        assertTrue(matcher.matches("org.apache.felix.scr.impl"));
+        assertTrue(matcher.matches("org.apache.felix.scr.impl2"));
+        assertFalse(matcher.matches("org.apache.felix.scr.api"));
+    }
+
+    @Test
+    public void manyPatternsAtOnce() {
+        ApiPackageMatcher matcher = ApiPackageMatcher.compile("org.apache.felix.inventory", "org.apache.felix.scr.*", "org.apache.sling.**");
+
+        assertTrue(matcher.matches("org.apache.felix.inventory"));
+        assertTrue(matcher.matches("org.apache.felix.scr.info"));
+        assertTrue(matcher.matches("org.apache.sling.api.resource"));
+        assertFalse(matcher.matches("org.apache.felix.metatype"));
+    }
+
+    @Test
+    public void matchDefiningRegions() {
+        ApiRegions apiRegions = new ApiRegions();
+        ApiRegion global = apiRegions.addNew("global");
+        global.add("org.apache.felix.inventory");
+        global.add("org.apache.felix.metatype");
+        ApiRegion internal = apiRegions.addNew("internal");
+        internal.add("org.apache.felix.scr.info");
+        internal.add("org.apache.sling.api");
+
+        ApiPackageMatcher matcher = ApiPackageMatcher.compile("org.apache.felix.**");
+
+        Map<String, ApiRegion> matches = matcher.match(apiRegions);
+        assertEquals(new HashSet<>(Arrays.asList("org.apache.felix.inventory", "org.apache.felix.metatype", "org.apache.felix.scr.info")),
+                     matches.keySet());
+        assertSame(global, matches.get("org.apache.felix.metatype"));
+        assertSame(internal, matches.get("org.apache.felix.scr.info"));
+
+        assertEquals(matches, matcher.match(internal));
+        assertEquals(2, matcher.match(global).size());
+    }
+
+}
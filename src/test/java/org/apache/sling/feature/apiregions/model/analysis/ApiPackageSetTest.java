@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApiPackageSetTest {
+
+    private ApiRegion global;
+
+    private ApiRegion internal;
+
+    private ApiRegion other;
+
+    @Before
+    public void setUp() {
+        ApiRegions apiRegions = new ApiRegions();
+        global = apiRegions.addNew("global");
+        global.add("org.apache.felix.inventory");
+        global.add("org.apache.felix.metatype");
+        internal = apiRegions.addNew("internal");
+        internal.add("org.apache.felix.scr.info");
+
+        ApiRegions otherApiRegions = new ApiRegions();
+        other = otherApiRegions.addNew("global");
+        other.add("org.apache.felix.metatype");
+        other.add("org.apache.felix.webconsole");
+    }
+
+    @Test
+    public void effectiveAndOwnExports() {
+        assertTrue(ApiPackageSet.of(internal).contains("org.apache.felix.inventory"));
+        assertFalse(ApiPackageSet.exportsOf(internal).contains("org.apache.felix.inventory"));
+        assertEquals(Arrays.asList("org.apache.felix.scr.info"), toList(ApiPackageSet.exportsOf(internal)));
+    }
+
+    @Test
+    public void packagesExportedAcrossTheHierarchyAreReportedOnce() {
+        // exported by the parent after the child
+        global.add("org.apache.felix.scr.info");
+
+        ApiPackageSet effective = ApiPackageSet.of(internal);
+        List<String> apis = toList(effective);
+        assertEquals(3, apis.size());
+        assertEquals(new HashSet<>(Arrays.asList("org.apache.felix.inventory", "org.apache.felix.metatype", "org.apache.felix.scr.info")),
+                     new HashSet<>(apis));
+        assertEquals(3, effective.materialize().size());
+    }
+
+    @Test
+    public void union() {
+        ApiPackageSet union = ApiPackageSet.of(global).union(ApiPackageSet.of(other));
+
+        assertTrue(union.contains("org.apache.felix.webconsole"));
+        assertFalse(union.contains("org.apache.felix.scr.info"));
+        List<String> apis = toList(union);
+        assertEquals(3, apis.size());
+        assertEquals(new HashSet<>(Arrays.asList("org.apache.felix.inventory", "org.apache.felix.metatype", "org.apache.felix.webconsole")),
+                     new HashSet<>(apis));
+    }
+
+    @Test
+    public void intersection() {
+        ApiPackageSet intersection = ApiPackageSet.of(internal).intersection(ApiPackageSet.of(other));
+
+        assertTrue(intersection.contains("org.apache.felix.metatype"));
+        assertFalse(intersection.contains("org.apache.felix.webconsole"));
+        assertEquals(Arrays.asList("org.apache.felix.metatype"), toList(intersection));
+    }
+
+    @Test
+    public void differenceIsLazy() {
+        ApiPackageSet difference = ApiPackageSet.of(internal).difference(ApiPackageSet.of(global));
+
+        assertEquals(Arrays.asList("org.apache.felix.scr.info"), toList(difference));
+
+        internal.add("org.apache.felix.hc.api");
+        assertTrue(difference.contains("org.apache.felix.hc.api"));
+        assertEquals(new HashSet<>(Arrays.asList("org.apache.felix.scr.info", "org.apache.felix.hc.api")), new HashSet<>(toList(difference)));
+    }
+
+    @Test
+    public void materialize() {
+        FrozenApiPackageSet frozen = ApiPackageSet.of(internal).union(ApiPackageSet.of(other)).materialize();
+
+        assertEquals(Arrays.asList("org.apache.felix.inventory",
+                                   "org.apache.felix.metatype",
+                                   "org.apache.felix.scr.info",
+                                   "org.apache.felix.webconsole"),
+                     frozen.asList());
+        assertEquals(4, frozen.size());
+        assertTrue(frozen.contains("org.apache.felix.webconsole"));
+        assertFalse(frozen.contains(null));
+        assertSame(frozen, frozen.materialize());
+
+        // snapshots do not follow the regions changes
+        internal.add("org.apache.felix.hc.api");
+        assertFalse(frozen.contains("org.apache.felix.hc.api"));
+    }
+
+    private static List<String> toList(ApiPackageSet apiPackageSet) {
+        List<String> apis = new ArrayList<>();
+        for (String api : apiPackageSet) {
+            apis.add(api);
+        }
+        return apis;
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.junit.Test;
+
+public class ApiRegionsDifferTest {
+
+    @Test(expected = NullPointerException.class)
+    public void nullPreviousNotAccepted() {
+        ApiRegionsDiffer.diff(null, new ApiRegions());
+    }
+
+    @Test
+    public void identicalApiRegionsHaveNoDiff() {
+        assertTrue(ApiRegionsDiffer.diff(newApiRegions(), newApiRegions()).isEmpty());
+    }
+
+    @Test
+    public void regionsAndPackagesChanges() {
+        ApiRegions previous = newApiRegions();
+
+        ApiRegions current = new ApiRegions();
+        ApiRegion global = current.addNew("global");
+        global.add("org.apache.felix.inventory");
+        // moved from 'deprecated'
+        global.add("org.apache.felix.webconsole");
+        ApiRegion internal = current.addNew("internal");
+        internal.add("org.apache.felix.scr.info");
+        internal.add("org.apache.felix.hc.api");
+        // added, defined by 'global' although exported by 'internal' as well
+        global.add("org.apache.felix.hc.api");
+        // 'org.apache.felix.metatype' removed, 'deprecated' region removed
+
+        ApiRegionsDiff diff = ApiRegionsDiffer.diff(previous, current);
+
+        assertEquals(Collections.singletonList("internal"), diff.getAddedRegions());
+        assertEquals(Collections.singletonList("deprecated"), diff.getRemovedRegions());
+
+        ApiRegionDiff globalDiff = diff.getRegionDiff("global");
+        assertEquals(Collections.singletonList("org.apache.felix.hc.api"), globalDiff.getAddedExports());
+        assertEquals(Collections.singletonList("org.apache.felix.metatype"), globalDiff.getRemovedExports());
+        assertEquals(Collections.singletonMap("org.apache.felix.webconsole", "deprecated"), globalDiff.getMovedExports());
+
+        ApiRegionDiff internalDiff = diff.getRegionDiff("internal");
+        assertEquals(Collections.emptyList(), internalDiff.getAddedExports());
+        assertEquals(Collections.singletonMap("org.apache.felix.scr.info", "deprecated"), internalDiff.getMovedExports());
+
+        assertNull(diff.getRegionDiff("deprecated"));
+        assertEquals(Arrays.asList(globalDiff, internalDiff), Arrays.asList(diff.getRegionDiffs().toArray()));
+    }
+
+    private static ApiRegions newApiRegions() {
+        ApiRegions apiRegions = new ApiRegions();
+
+        ApiRegion global = apiRegions.addNew("global");
+        global.add("org.apache.felix.inventory");
+        global.add("org.apache.felix.metatype");
+
+        ApiRegion deprecated = apiRegions.addNew("deprecated");
+        deprecated.add("org.apache.felix.webconsole");
+        deprecated.add("org.apache.felix.scr.info");
+
+        return apiRegions;
+    }
+
+}
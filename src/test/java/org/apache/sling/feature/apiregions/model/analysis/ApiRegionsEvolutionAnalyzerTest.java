@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.junit.Test;
+
+public class ApiRegionsEvolutionAnalyzerTest {
+
+    @Test(expected = NullPointerException.class)
+    public void nullVersionsNotAccepted() {
+        ApiRegionsEvolutionAnalyzer.analyze((Stream<ApiRegions>) null);
+    }
+
+    @Test
+    public void packagesLifetime() {
+        ApiRegionsEvolution evolution = ApiRegionsEvolutionAnalyzer.analyze(Stream.of(
+            newApiRegions("org.apache.felix.inventory,org.apache.felix.metatype", ""),
+            newApiRegions("org.apache.felix.inventory", "org.apache.felix.metatype"),
+            newApiRegions("org.apache.felix.inventory", ""),
+            newApiRegions("org.apache.felix.inventory", "org.apache.felix.metatype,org.apache.felix.scr")
+        ));
+
+        assertEquals(4, evolution.getVersionsCount());
+        assertEquals(3, evolution.getPackageHistories().size());
+        assertNull(evolution.getPackageHistory("org.apache.felix.webconsole"));
+
+        ApiPackageHistory inventory = evolution.getPackageHistory("org.apache.felix.inventory");
+        assertEquals(0, inventory.getFirstSeen());
+        assertEquals(3, inventory.getLastSeen());
+        assertEquals(changes(0, "global"), inventory.getRegionChanges());
+
+        ApiPackageHistory metatype = evolution.getPackageHistory("org.apache.felix.metatype");
+        assertEquals(0, metatype.getFirstSeen());
+        assertEquals(3, metatype.getLastSeen());
+        assertEquals(changes(0, "global", 1, "internal", 2, null, 3, "internal"), metatype.getRegionChanges());
+
+        ApiPackageHistory scr = evolution.getPackageHistory("org.apache.felix.scr");
+        assertEquals(3, scr.getFirstSeen());
+        assertEquals(changes(3, "internal"), scr.getRegionChanges());
+    }
+
+    @Test
+    public void trailingRemoval() {
+        ApiRegionsEvolution evolution = ApiRegionsEvolutionAnalyzer.analyze(Stream.of(
+            newApiRegions("org.apache.felix.inventory", ""),
+            newApiRegions("", ""),
+            newApiRegions("", "")
+        ));
+
+        ApiPackageHistory inventory = evolution.getPackageHistory("org.apache.felix.inventory");
+        assertEquals(0, inventory.getLastSeen());
+        assertEquals(changes(0, "global", 1, null), inventory.getRegionChanges());
+    }
+
+    private static SortedMap<Integer, String> changes(Object...versionsAndRegions) {
+        SortedMap<Integer, String> changes = new TreeMap<>();
+        for (int i = 0; i < versionsAndRegions.length; i += 2) {
+            changes.put((Integer) versionsAndRegions[i], (String) versionsAndRegions[i + 1]);
+        }
+        return changes;
+    }
+
+    private static ApiRegions newApiRegions(String globalExports, String internalExports) {
+        ApiRegions apiRegions = new ApiRegions();
+        addExports(apiRegions, "global", globalExports);
+        addExports(apiRegions, "internal", internalExports);
+        return apiRegions;
+    }
+
+    private static void addExports(ApiRegions apiRegions, String regionName, String exports) {
+        ApiRegion apiRegion = apiRegions.addNew(regionName);
+        for (String api : exports.split(",")) {
+            if (!api.isEmpty()) {
+                apiRegion.add(api);
+            }
+        }
+    }
+
+}
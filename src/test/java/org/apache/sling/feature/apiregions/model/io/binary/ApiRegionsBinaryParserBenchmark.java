@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONParser;
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares loading a large region set from the binary snapshot against the JSON representation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiRegionsBinaryParserBenchmark {
+
+    private byte[] binary;
+
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        ApiRegions apiRegions = new ApiRegions();
+        for (int region = 0; region < 10; region++) {
+            ApiRegion apiRegion = apiRegions.addNew("region" + region);
+            for (int api = 0; api < 5000; api++) {
+                apiRegion.add("org.apache.sling.feature.region" + region + ".impl.api" + api);
+            }
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApiRegionsBinarySerializer.serializeApiRegions(apiRegions, output);
+        binary = output.toByteArray();
+
+        json = ApiRegionsJSONSerializer.serializeApiRegions(apiRegions).getJSON();
+    }
+
+    @Benchmark
+    public ApiRegions parseBinary() throws IOException {
+        return ApiRegionsBinaryParser.parseApiRegions(ByteBuffer.wrap(binary));
+    }
+
+    @Benchmark
+    public ApiRegions parseJSON() {
+        return ApiRegionsJSONParser.parseApiRegions(json);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                   .include(ApiRegionsBinaryParserBenchmark.class.getSimpleName())
+                   .build())
+        .run();
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApiRegionsBinaryParserTest {
+
+    private ApiRegions apiRegions;
+
+    @Before
+    public void setUp() {
+        apiRegions = new ApiRegions();
+
+        ApiRegion base = apiRegions.addNew("base");
+        base.add("org.apache.felix.inventory");
+        base.add("org.apache.felix.metatype");
+
+        apiRegions.addNew("empty");
+
+        ApiRegion extended = apiRegions.addNew("extended");
+        extended.add("org.apache.felix.scr.component");
+        extended.add("org.apache.felix.scr.info");
+        extended.add("com.acme.felix");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void canNotSerializeNullApiRegions() throws IOException {
+        ApiRegionsBinarySerializer.serializeApiRegions(null, new ByteArrayOutputStream());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void canNotSerializeToNullStream() throws IOException {
+        ApiRegionsBinarySerializer.serializeApiRegions(apiRegions, (OutputStream) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void canNotParseNullStream() throws IOException {
+        ApiRegionsBinaryParser.parseApiRegions((InputStream) null);
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void canNotParseNonSnapshot() throws IOException {
+        ApiRegionsBinaryParser.parseApiRegions(new ByteArrayInputStream("[{}]".getBytes()));
+    }
+
+    @Test
+    public void roundTripIsLossless() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApiRegionsBinarySerializer.serializeApiRegions(apiRegions, output);
+
+        ApiRegions parsed = ApiRegionsBinaryParser.parseApiRegions(new ByteArrayInputStream(output.toByteArray()));
+
+        ApiRegion base = parsed.getByName("base");
+        assertNull(base.getParent());
+        assertSame(base, parsed.getByName("empty").getParent());
+        assertSame(parsed.getByName("empty"), parsed.getByName("extended").getParent());
+        assertTrue(parsed.getByName("extended").contains("org.apache.felix.metatype"));
+
+        assertEquals(ApiRegionsJSONSerializer.serializeApiRegions(apiRegions).getJSON(),
+                     ApiRegionsJSONSerializer.serializeApiRegions(parsed).getJSON());
+    }
+
+    @Test
+    public void contentFollowingTheSnapshotIsNotConsumed() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApiRegionsBinarySerializer.serializeApiRegions(apiRegions, output);
+        output.write(42);
+
+        InputStream input = new ByteArrayInputStream(output.toByteArray());
+        ApiRegionsBinaryParser.parseApiRegions(input);
+
+        assertEquals(42, input.read());
+        assertEquals(-1, input.read());
+    }
+
+    @Test(expected = EOFException.class)
+    public void hugeDeclaredSegmentsCountDoesNotAllocateUpfront() throws IOException {
+        // magic, version, segments count Integer.MAX_VALUE, then nothing
+        byte[] snapshot = { 'A', 'P', 'I', 'R', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+        ApiRegionsBinaryParser.parseApiRegions(new ByteArrayInputStream(snapshot));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void hugeDeclaredStringLengthNotAccepted() throws IOException {
+        // magic, version, 1 segment of length Integer.MAX_VALUE, then nothing
+        byte[] snapshot = { 'A', 'P', 'I', 'R', 1, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+        ApiRegionsBinaryParser.parseApiRegions(new ByteArrayInputStream(snapshot));
+    }
+
+    @Test
+    public void parseBufferFromItsPosition() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(42);
+        ApiRegionsBinarySerializer.serializeApiRegions(apiRegions, output);
+        output.write(42);
+
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray());
+        buffer.position(1);
+        ApiRegions parsed = ApiRegionsBinaryParser.parseApiRegions(buffer);
+
+        assertTrue(parsed.getByName("extended").contains("org.apache.felix.metatype"));
+        assertEquals(1, buffer.remaining());
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedBufferNotAccepted() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApiRegionsBinarySerializer.serializeApiRegions(apiRegions, output);
+        byte[] snapshot = output.toByteArray();
+
+        ApiRegionsBinaryParser.parseApiRegions(ByteBuffer.wrap(snapshot, 0, snapshot.length - 1));
+    }
+
+    @Test
+    public void invalidPackagesNotAccepted() throws IOException {
+        // magic, version, segments "org" and "enum", one region "r" without parent exporting "org.enum"
+        byte[] snapshot = { 'A', 'P', 'I', 'R', 1, 2, 3, 'o', 'r', 'g', 4, 'e', 'n', 'u', 'm', 1, 1, 'r', 0, 1, 2, 0, 1 };
+        ApiRegions parsed = ApiRegionsBinaryParser.parseApiRegions(ByteBuffer.wrap(snapshot));
+
+        assertTrue(parsed.getByName("r").isEmpty());
+    }
+
+}
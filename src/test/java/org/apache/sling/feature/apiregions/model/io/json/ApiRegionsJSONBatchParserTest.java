@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sling.feature.ArtifactId;
+import org.apache.sling.feature.Extension;
+import org.apache.sling.feature.ExtensionType;
+import org.apache.sling.feature.Feature;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONBatchParser.Result;
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONParser.Engine;
+import org.junit.Test;
+
+public class ApiRegionsJSONBatchParserTest {
+
+    private static final String JSON = "[{\"name\":\"base\",\"exports\":[\"org.apache.felix.metatype\"]},"
+                                       + "{\"name\":\"extended\",\"exports\":[\"org.apache.felix.scr.component\"]}]";
+
+    private static Feature newFeature(String version, String json) {
+        Feature feature = new Feature(ArtifactId.fromMvnId("org.apache.sling:org.apache.sling.feature.apiregions:" + version));
+        if (json != null) {
+            feature.getExtensions().add(newExtension(json));
+        }
+        return feature;
+    }
+
+    private static Extension newExtension(String json) {
+        Extension extension = new Extension(ExtensionType.JSON, "api-regions", false);
+        extension.setJSON(json);
+        return extension;
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullFeaturesNotAccepted() {
+        ApiRegionsJSONBatchParser.parseFeatures(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicatedIdsNotAccepted() {
+        ApiRegionsJSONBatchParser.parseFeatures(Arrays.asList(newFeature("1.0.0", JSON), newFeature("1.0.0", JSON)));
+    }
+
+    @Test
+    public void duplicatedIdsDetectedBeforeSubmittingAnyTask() {
+        AtomicInteger submitted = new AtomicInteger();
+        Executor executor = task -> submitted.incrementAndGet();
+
+        try {
+            ApiRegionsJSONBatchParser.parseFeatures(Arrays.asList(newFeature("1.0.0", JSON), newFeature("2.0.0", JSON), newFeature("1.0.0", JSON)),
+                                                    Engine.JSONP,
+                                                    executor);
+            fail("Duplicated IDs not detected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, submitted.get());
+        }
+    }
+
+    @Test
+    public void failuresAreIsolated() {
+        Feature valid = newFeature("1.0.0", JSON);
+        Feature invalid = newFeature("2.0.0", "[{\"name\":\"base\",\"exports\":[\"org.apache.felix.metatype\"]},{\"name\":\"base\",\"exports\":[\"org.apache.felix.scr\"]}]");
+        Feature missing = newFeature("3.0.0", null);
+
+        Map<ArtifactId, Result> results = ApiRegionsJSONBatchParser.parseFeatures(Arrays.asList(valid, invalid, missing));
+
+        assertEquals(Arrays.asList(valid.getId(), invalid.getId(), missing.getId()), Arrays.asList(results.keySet().toArray()));
+
+        Result result = results.get(valid.getId());
+        assertTrue(result.isSuccess());
+        assertNotNull(result.getApiRegions().getByName("extended"));
+
+        result = results.get(invalid.getId());
+        assertFalse(result.isSuccess());
+        assertNull(result.getApiRegions());
+        assertTrue(result.getFailure() instanceof IllegalArgumentException);
+
+        result = results.get(missing.getId());
+        assertTrue(result.isSuccess());
+        assertNull(result.getApiRegions());
+    }
+
+    @Test
+    public void parseExtensionsOnExecutor() {
+        Map<ArtifactId, Extension> extensions = new LinkedHashMap<>();
+        for (int i = 0; i < 32; i++) {
+            extensions.put(ArtifactId.fromMvnId("org.apache.sling:feature-" + i + ":1.0.0"), newExtension(JSON));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Map<ArtifactId, Result> results = ApiRegionsJSONBatchParser.parseExtensions(extensions, Engine.SPECIALIZED, executor);
+
+            assertEquals(extensions.keySet(), results.keySet());
+            for (Result result : results.values()) {
+                ApiRegions apiRegions = result.getApiRegions();
+                assertTrue(apiRegions.getByName("extended").contains("org.apache.felix.metatype"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
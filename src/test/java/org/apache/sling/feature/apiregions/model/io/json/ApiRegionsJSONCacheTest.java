@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sling.feature.ArtifactId;
+import org.apache.sling.feature.Extension;
+import org.apache.sling.feature.ExtensionType;
+import org.apache.sling.feature.Feature;
+import org.apache.sling.feature.apiregions.model.FrozenApiRegions;
+import org.junit.Test;
+
+public class ApiRegionsJSONCacheTest {
+
+    private static String json(String regionName) {
+        return "[{\"name\":\"" + regionName + "\",\"exports\":[\"org.apache.felix.metatype\"]}]";
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveEntriesNotAccepted() {
+        new ApiRegionsJSONCache(0, 1024);
+    }
+
+    @Test
+    public void identicalContentIsParsedOnce() {
+        ApiRegionsJSONCache cache = new ApiRegionsJSONCache(8, 1024 * 1024);
+
+        FrozenApiRegions first = cache.parseApiRegions(json("base"));
+        FrozenApiRegions second = cache.parseApiRegions(new String(json("base")));
+
+        assertSame(first, second);
+        assertTrue(first.getByName("base").exports("org.apache.felix.metatype"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+        assertEquals(2L * json("base").length(), cache.getEstimatedBytes());
+    }
+
+    @Test
+    public void featuresSharingContentShareEntries() {
+        ApiRegionsJSONCache cache = new ApiRegionsJSONCache(8, 1024 * 1024);
+
+        Feature withRegions = new Feature(ArtifactId.fromMvnId("org.apache.sling:org.apache.sling.feature.apiregions:1.0.0"));
+        Extension extension = new Extension(ExtensionType.JSON, "api-regions", false);
+        extension.setJSON(json("base"));
+        withRegions.getExtensions().add(extension);
+
+        Feature withoutRegions = new Feature(ArtifactId.fromMvnId("org.apache.sling:org.apache.sling.feature.apiregions:2.0.0"));
+
+        assertSame(cache.parseApiRegions(json("base")), cache.parseApiRegions(withRegions));
+        assertNull(cache.parseApiRegions(withoutRegions));
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictedByEntries() {
+        ApiRegionsJSONCache cache = new ApiRegionsJSONCache(2, 1024 * 1024);
+
+        FrozenApiRegions a = cache.parseApiRegions(json("a"));
+        cache.parseApiRegions(json("b"));
+        // touch 'a' so 'b' becomes the least recently used
+        cache.parseApiRegions(json("a"));
+        cache.parseApiRegions(json("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.parseApiRegions(json("a")));
+
+        long misses = cache.getMissCount();
+        cache.parseApiRegions(json("b"));
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void evictedBySize() {
+        long entrySize = 2L * json("a").length();
+        ApiRegionsJSONCache cache = new ApiRegionsJSONCache(16, entrySize * 2);
+
+        cache.parseApiRegions(json("a"));
+        cache.parseApiRegions(json("b"));
+        cache.parseApiRegions(json("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals(entrySize * 2, cache.getEstimatedBytes());
+        assertEquals(1, cache.getEvictionCount());
+
+        FrozenApiRegions c = cache.parseApiRegions(json("c"));
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEstimatedBytes());
+        assertNotSame(c, cache.parseApiRegions(json("c")));
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONParser.Engine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the per-parse latency when a batch of features is parsed:
+ * with the cached parser factory versus a JsonProvider lookup for each parse,
+ * and with the JSON-P engine versus the specialized one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiRegionsJSONParserBenchmark {
+
+    private static final int BATCH_SIZE = 2000;
+
+    private final String[] batch = new String[BATCH_SIZE];
+
+    @Setup
+    public void setUp() {
+        for (int feature = 0; feature < BATCH_SIZE; feature++) {
+            StringBuilder json = new StringBuilder("[");
+            for (int region = 0; region < 3; region++) {
+                if (region > 0) {
+                    json.append(',');
+                }
+                json.append("{\"name\":\"region").append(region).append("\",\"exports\":[");
+                for (int api = 0; api < 10; api++) {
+                    if (api > 0) {
+                        json.append(',');
+                    }
+                    json.append("\"org.apache.sling.feature").append(feature)
+                        .append(".region").append(region)
+                        .append(".api").append(api).append('"');
+                }
+                json.append("]}");
+            }
+            batch[feature] = json.append(']').toString();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void cachedParserFactory(Blackhole blackhole) {
+        for (String json : batch) {
+            blackhole.consume(ApiRegionsJSONParser.parseApiRegions(json));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void providerLookupPerParse(Blackhole blackhole) {
+        for (String json : batch) {
+            blackhole.consume(ApiRegionsJSONParser.parseApiRegions(new StringReader(json),
+                                                                   Json.createParserFactory(Collections.<String, Object>emptyMap())));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void specializedEngine(Blackhole blackhole) {
+        for (String json : batch) {
+            blackhole.consume(ApiRegionsJSONParser.parseApiRegionsWith(json, Engine.SPECIALIZED));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                   .include(ApiRegionsJSONParserBenchmark.class.getSimpleName())
+                   .build())
+        .run();
+    }
+
+}
@@ -16,11 +16,29 @@
  */
 package org.apache.sling.feature.apiregions.model.io.json;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.function.Supplier;
+
+import javax.json.Json;
+import javax.json.stream.JsonParserFactory;
+import javax.json.stream.JsonParsingException;
+
 import org.apache.sling.feature.ArtifactId;
 import org.apache.sling.feature.Extension;
 import org.apache.sling.feature.ExtensionType;
@@ -28,10 +46,14 @@ import org.apache.sling.feature.Feature;
 import org.apache.sling.feature.apiregions.model.ApiRegion;
 import org.apache.sling.feature.apiregions.model.ApiRegions;
 import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONParser;
+import org.apache.sling.feature.apiregions.model.io.json.ApiRegionsJSONParser.Engine;
 import org.junit.Test;
 
 public class ApiRegionsJSONParserTest {
 
+    private static final String JSON = "[{\"name\":\"base\",\"exports\":[\"org.apache.felix.metatype\",\"# comment\"]},"
+                                       + "{\"name\":\"extended\",\"exports\":[\"org.apache.felix.scr.component\"]}]";
+
     @Test(expected = NullPointerException.class)
     public void canNotParseNullFeature() {
         ApiRegionsJSONParser.parseApiRegions((Feature) null);
@@ -59,6 +81,167 @@ public class ApiRegionsJSONParserTest {
         ApiRegionsJSONParser.parseApiRegions((String) null);
     }
 
+    @Test(expected = NullPointerException.class)
+    public void canNotParseNullReader() {
+        ApiRegionsJSONParser.parseApiRegions((Reader) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void canNotParseNullInputStream() {
+        ApiRegionsJSONParser.parseApiRegions((InputStream) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void canNotParseNullPath() throws IOException {
+        ApiRegionsJSONParser.parseApiRegions((Path) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void canNotParseWithNullParserFactory() {
+        ApiRegionsJSONParser.parseApiRegions(new StringReader(JSON), null);
+    }
+
+    @Test
+    public void parseWithProvidedParserFactory() {
+        JsonParserFactory parserFactory = Json.createParserFactory(Collections.<String, Object>emptyMap());
+        ApiRegions apiRegions = ApiRegionsJSONParser.parseApiRegions(new StringReader(JSON), parserFactory);
+        streamedApiRegionsAssertions(apiRegions);
+    }
+
+    @Test
+    public void parseWithSpecializedEngine() throws IOException {
+        streamedApiRegionsAssertions(ApiRegionsJSONParser.parseApiRegionsWith(JSON, Engine.SPECIALIZED));
+        streamedApiRegionsAssertions(ApiRegionsJSONParser.parseApiRegionsWith(new StringReader(JSON), Engine.SPECIALIZED));
+    }
+
+    @Test
+    public void specializedEngineMatchesJsonp() {
+        String json = "[\n"
+                      + "  { \"exports\": [ \"# leading comment\", \"org.apache.felix.metatype\" ], \"name\": \"base\" },\n"
+                      + "  { \"name\": \"comments-only\", \"exports\": [ \"# nothing here\" ] },\n"
+                      + "  { \"name\": \"no-exports\" },\n"
+                      + "  { \"name\": \"esc\\u0061ped\", \"unknown\": \"]}\\\"\",\n"
+                      + "    \"exports\": [ \"org.apache.felix.scr\\u002einfo\", \"javax.jms.doc-files\" ], \"number\": -1.5e3 }\n"
+                      + "]";
+
+        ApiRegions jsonp = ApiRegionsJSONParser.parseApiRegionsWith(json, Engine.JSONP);
+        ApiRegions specialized = ApiRegionsJSONParser.parseApiRegionsWith(json, Engine.SPECIALIZED);
+
+        assertEquals(ApiRegionsJSONSerializer.serializeApiRegions(jsonp).getJSON(),
+                     ApiRegionsJSONSerializer.serializeApiRegions(specialized).getJSON());
+
+        assertNull(specialized.getByName("comments-only"));
+        assertNull(specialized.getByName("no-exports"));
+        assertTrue(specialized.getByName("escaped").contains("org.apache.felix.scr.info"));
+        assertTrue(specialized.getByName("escaped").contains("org.apache.felix.metatype"));
+    }
+
+    @Test
+    public void enginesAgreeOnEdgeCases() {
+        String[] inputs = {
+            // non-string exports stop reading the exports
+            "[{\"name\":\"g\",\"exports\":[1,\"org.apache.felix.metatype\"]}]",
+            "[{\"name\":\"g\",\"exports\":[\"org.apache.felix.metatype\",1,\"org.apache.felix.scr\"]}]",
+            "[{\"name\":\"g\",\"exports\":[\"org.apache.felix.metatype\",{\"name\":\"h\"}]}]",
+            // nested objects
+            "[{\"name\":\"g\",\"unknown\":{\"name\":\"h\"},\"exports\":[\"org.apache.felix.metatype\"]}]",
+            "[{\"name\":\"g\",\"exports\":[\"org.apache.felix.metatype\"],\"unknown\":{\"nested\":1}}]",
+            "[{\"name\":\"g\",\"unknown\":[[1,true,null],[]],\"exports\":[\"org.apache.felix.metatype\"]}]",
+            // empty exports
+            "[{\"name\":\"g\",\"exports\":[\"\",\"org.apache.felix.metatype\"]}]",
+            "[{\"name\":\"g\",\"exports\":[]}]",
+            "[{\"name\":\"g\",\"exports\":[\"org.apache.felix.metatype\",\"\"]}]",
+            // arrays skipped while scanning lazily
+            "[{\"name\":\"g\",\"exports\":[\"org.apache.felix.metatype\",\"# \\\"quoted\\\" ]\",\"org.apache.felix.scr\"]}]",
+            // non-string names
+            "[{\"name\":1,\"exports\":[\"org.apache.felix.metatype\"]}]",
+            "[{\"name\":{},\"exports\":[\"org.apache.felix.metatype\"]}]",
+            "[{\"name\":null,\"exports\":[\"org.apache.felix.metatype\"]}]",
+            // non-array exports
+            "[{\"name\":\"g\",\"exports\":\"org.apache.felix.metatype\"}]",
+            "[{\"name\":\"g\",\"exports\":{\"name\":\"h\"}}]",
+            // repeated keys and regions
+            "[{\"name\":\"g\",\"name\":\"h\",\"exports\":[\"org.apache.felix.scr\"],\"exports\":[\"org.apache.felix.metatype\"]}]",
+            "[{\"name\":\"g\",\"exports\":[\"org.apache.felix.scr\"]},{\"name\":\"g\",\"exports\":[\"org.apache.felix.metatype\"]}]",
+            // structure
+            "{}",
+            "[1]",
+            "[[]]",
+            "[]",
+            "[] trailing"
+        };
+
+        for (String json : inputs) {
+            String expected = outcome(() -> ApiRegionsJSONParser.parseApiRegionsWith(json, Engine.JSONP));
+            assertEquals(json, expected, outcome(() -> ApiRegionsJSONParser.parseApiRegionsWith(json, Engine.SPECIALIZED)));
+            assertEquals(json, expected, outcome(() -> ApiRegionsJSONParser.parseApiRegionsLazily(json).getApiRegions()));
+        }
+    }
+
+    private static String outcome(Supplier<ApiRegions> parsing) {
+        try {
+            return ApiRegionsJSONSerializer.serializeApiRegions(parsing.get(), ApiRegionsJSONSerializerConfiguration.COMPACT).getJSON();
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void specializedEngineRejectsNonArray() {
+        ApiRegionsJSONParser.parseApiRegionsWith("{}", Engine.SPECIALIZED);
+    }
+
+    @Test(expected = JsonParsingException.class)
+    public void specializedEngineRejectsTruncatedJson() {
+        ApiRegionsJSONParser.parseApiRegionsWith("[{\"name\":\"base\",\"exports\":[\"org.apache", Engine.SPECIALIZED);
+    }
+
+    @Test
+    public void parseSelectedRegionsWithTheirAncestors() throws IOException {
+        String json = "[{\"name\":\"global\",\"exports\":[\"org.apache.felix.metatype\"]},"
+                      + "{\"name\":\"internal\",\"exports\":[\"org.apache.felix.scr.info\"]},"
+                      + "{\"name\":\"deprecated\",\"exports\":[\"org.apache.felix.scr.component\"]}]";
+
+        ApiRegions apiRegions = ApiRegionsJSONParser.parseSelectedApiRegions(json, new HashSet<>(Arrays.asList("internal"))::contains);
+        assertTrue(apiRegions.getByName("internal").contains("org.apache.felix.metatype"));
+        assertNotNull(apiRegions.getByName("global"));
+        assertNull(apiRegions.getByName("deprecated"));
+
+        apiRegions = ApiRegionsJSONParser.parseSelectedApiRegions(new StringReader(json), "global"::equals);
+        assertNotNull(apiRegions.getByName("global"));
+        assertNull(apiRegions.getByName("internal"));
+
+        assertTrue(ApiRegionsJSONParser.parseSelectedApiRegions(json, regionName -> false).isEmpty());
+    }
+
+    @Test
+    public void parseInputStream() {
+        ApiRegions apiRegions = ApiRegionsJSONParser.parseApiRegions(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)));
+        streamedApiRegionsAssertions(apiRegions);
+    }
+
+    @Test
+    public void parsePath() throws IOException {
+        Path jsonFile = Files.createTempFile("api-regions", ".json");
+        try {
+            Files.write(jsonFile, JSON.getBytes(StandardCharsets.UTF_8));
+            ApiRegions apiRegions = ApiRegionsJSONParser.parseApiRegions(jsonFile);
+            streamedApiRegionsAssertions(apiRegions);
+        } finally {
+            Files.delete(jsonFile);
+        }
+    }
+
+    private static void streamedApiRegionsAssertions(ApiRegions apiRegions) {
+        ApiRegion base = apiRegions.getByName("base");
+        assertTrue(base.contains("org.apache.felix.metatype"));
+
+        ApiRegion extended = apiRegions.getByName("extended");
+        assertSame(base, extended.getParent());
+        assertTrue(extended.contains("org.apache.felix.scr.component"));
+        assertTrue(extended.contains("org.apache.felix.metatype"));
+    }
+
     @Test
     public void parseApiRegions() {
         Extension extension = new Extension(ExtensionType.JSON, "api-regions", false);
@@ -21,9 +21,16 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.apache.sling.feature.ArtifactId;
 import org.apache.sling.feature.Extension;
@@ -97,6 +104,52 @@ public final class ApiRegionsJSONSerializerTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void streamSerialization() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, output);
+
+        assertEquals(expected, new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void channelSerialization() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(output);
+
+        ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, channel);
+
+        assertTrue(channel.isOpen());
+        assertEquals(expected, new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void largePathSerialization() throws IOException {
+        ApiRegions large = new ApiRegions();
+        for (int i = 0; i < 10; i++) {
+            // non-ASCII region names exercise the UTF-8 encoding
+            ApiRegion apiRegion = large.addNew("region-\u00e9-" + i);
+            for (int j = 0; j < 1000; j++) {
+                apiRegion.add("org.apache.sling.region" + i + ".package" + j);
+            }
+        }
+
+        Path jsonFile = Files.createTempFile("api-regions", ".json");
+        try {
+            ApiRegionsJSONSerializer.serializeApiRegions(large, jsonFile, ApiRegionsJSONSerializerConfiguration.COMPACT);
+
+            StringWriter writer = new StringWriter();
+            ApiRegionsJSONSerializer.serializeApiRegions(large, writer, ApiRegionsJSONSerializerConfiguration.COMPACT);
+
+            assertEquals(writer.toString(), new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8));
+
+            ApiRegions parsed = ApiRegionsJSONParser.parseApiRegions(jsonFile);
+            assertTrue(parsed.getByName("region-\u00e9-9").contains("org.apache.sling.region0.package999"));
+        } finally {
+            Files.delete(jsonFile);
+        }
+    }
+
     @Test
     public void extensionCreation() {
         Extension extension = ApiRegionsJSONSerializer.serializeApiRegions(apiRegions);
@@ -122,4 +175,113 @@ public final class ApiRegionsJSONSerializerTest {
         assertEquals(expected, extension.getJSON());
     }
 
+    @Test(expected = NullPointerException.class)
+    public void nullConfigurationNotAccepted() {
+        ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, new StringWriter(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeIndentNotAccepted() {
+        new ApiRegionsJSONSerializerConfiguration(true, -2, false);
+    }
+
+    @Test
+    public void compactSerialization() {
+        StringWriter writer = new StringWriter();
+        ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, writer, ApiRegionsJSONSerializerConfiguration.COMPACT);
+
+        assertEquals(expected.replaceAll("\\s", ""), writer.toString());
+    }
+
+    @Test
+    public void explicitIndentSerialization() {
+        StringWriter writer = new StringWriter();
+        ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, writer, new ApiRegionsJSONSerializerConfiguration(true, 2, false));
+
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void sortedSerialization() {
+        ApiRegions apiRegions = new ApiRegions();
+        ApiRegion base = apiRegions.addNew("base");
+        base.add("org.apache.felix.metatype");
+        base.add("org.apache.felix.inventory");
+        apiRegions.addNew("empty");
+
+        Extension extension = ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, new ApiRegionsJSONSerializerConfiguration(true, 1, true));
+
+        assertEquals("[\n" + 
+                     " {\n" + 
+                     "  \"name\":\"base\",\n" + 
+                     "  \"exports\":[\n" + 
+                     "   \"org.apache.felix.inventory\",\n" + 
+                     "   \"org.apache.felix.metatype\"\n" + 
+                     "  ]\n" + 
+                     " },\n" + 
+                     " {\n" + 
+                     "  \"name\":\"empty\",\n" + 
+                     "  \"exports\":[]\n" + 
+                     " }\n" + 
+                     "]", extension.getJSON());
+    }
+
+    @Test
+    public void deterministicSerializationDoesNotDependOnInsertionOrder() {
+        ApiRegions reversed = new ApiRegions();
+
+        ApiRegion base = reversed.addNew("base");
+        base.add("org.apache.felix.metatype");
+        base.add("org.apache.felix.inventory");
+
+        ApiRegion extended = reversed.addNew("extended");
+        extended.add("org.apache.felix.scr.info");
+        extended.add("org.apache.felix.scr.component");
+
+        Extension expected = ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, ApiRegionsJSONSerializerConfiguration.DETERMINISTIC);
+        Extension actual = ApiRegionsJSONSerializer.serializeApiRegions(reversed, ApiRegionsJSONSerializerConfiguration.DETERMINISTIC);
+
+        assertEquals(expected.getJSON(), actual.getJSON());
+    }
+
+    @Test
+    public void estimatedSizeMatchesTheExplicitLayout() {
+        ApiRegionsJSONSerializerConfiguration[] configurations = {
+            ApiRegionsJSONSerializerConfiguration.COMPACT,
+            ApiRegionsJSONSerializerConfiguration.DETERMINISTIC,
+            new ApiRegionsJSONSerializerConfiguration(true, 8, false),
+            new ApiRegionsJSONSerializerConfiguration(true, 12, false)
+        };
+
+        for (ApiRegions apiRegions : new ApiRegions[] { this.apiRegions, manyRegions(), new ApiRegions() }) {
+            for (ApiRegionsJSONSerializerConfiguration configuration : configurations) {
+                int actualSize = ApiRegionsJSONSerializer.serializeApiRegions(apiRegions, configuration).getJSON().length();
+                assertEquals(actualSize, ApiRegionsJSONSerializer.estimateSize(apiRegions, configuration));
+            }
+        }
+    }
+
+    @Test
+    public void estimatedSizeIsAnUpperBoundOfTheProviderLayout() {
+        for (ApiRegions apiRegions : new ApiRegions[] { this.apiRegions, manyRegions(), new ApiRegions() }) {
+            int estimatedSize = ApiRegionsJSONSerializer.estimateSize(apiRegions, ApiRegionsJSONSerializerConfiguration.DEFAULT);
+            int actualSize = ApiRegionsJSONSerializer.serializeApiRegions(apiRegions).getJSON().length();
+            assertTrue(estimatedSize + " < " + actualSize, estimatedSize >= actualSize);
+        }
+    }
+
+    private static ApiRegions manyRegions() {
+        ApiRegions apiRegions = new ApiRegions();
+        for (int i = 0; i < 50; i++) {
+            ApiRegion apiRegion = apiRegions.addNew("region" + i);
+            apiRegion.add("org.apache.felix.api" + i);
+            if (i % 10 == 0) {
+                apiRegion.add("org.apache.felix.spi" + i);
+            }
+        }
+        // a region without exports
+        apiRegions.addNew("empty");
+        return apiRegions;
+    }
+
 }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import javax.json.stream.JsonParsingException;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.junit.Test;
+
+public class LazyApiRegionsTest {
+
+    private static final String JSON = "[{\"name\":\"global\",\"exports\":[\"org.apache.felix.metatype\"]},"
+                                       + "{\"name\":\"internal\",\"exports\":[\"org.apache.felix.scr.info\"]},"
+                                       + "{\"name\":\"empty\",\"exports\":[\"# comment only\"]},"
+                                       + "{\"name\":\"deprecated\",\"exports\":[\"org.apache.felix.scr.component\"]}]";
+
+    @Test(expected = NullPointerException.class)
+    public void canNotParseNullJsonRepresentation() {
+        ApiRegionsJSONParser.parseApiRegionsLazily((String) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicatedRegionsDetectedUpfront() {
+        ApiRegionsJSONParser.parseApiRegionsLazily("[{\"name\":\"global\",\"exports\":[\"org.apache\"]},"
+                                                   + "{\"name\":\"global\",\"exports\":[\"org.apache.sling\"]}]");
+    }
+
+    @Test
+    public void exportsFollowingTheFirstOneAreTokenizedOnMaterialization() {
+        LazyApiRegions lazyApiRegions = ApiRegionsJSONParser.parseApiRegionsLazily("[{\"name\":\"global\",\"exports\":"
+                                                                                   + "[\"org.apache.felix.metatype\",\"org.apache.\\x\"]}]");
+        assertEquals(Arrays.asList("global"), lazyApiRegions.getRegionNames());
+
+        try {
+            lazyApiRegions.getByName("global");
+            fail("Malformed export not reported on materialization");
+        } catch (JsonParsingException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void regionsAreIndexedUpfront() {
+        LazyApiRegions lazyApiRegions = ApiRegionsJSONParser.parseApiRegionsLazily(JSON);
+
+        assertFalse(lazyApiRegions.isEmpty());
+        assertEquals(Arrays.asList("global", "internal", "deprecated"), lazyApiRegions.getRegionNames());
+        assertFalse(lazyApiRegions.isMaterialized("global"));
+        assertNull(lazyApiRegions.getByName("empty"));
+        assertNull(lazyApiRegions.getByName(null));
+    }
+
+    @Test
+    public void regionsAreMaterializedWithTheirAncestors() {
+        LazyApiRegions lazyApiRegions = ApiRegionsJSONParser.parseApiRegionsLazily(JSON);
+
+        ApiRegion internal = lazyApiRegions.getByName("internal");
+        assertTrue(internal.contains("org.apache.felix.scr.info"));
+        assertTrue(internal.contains("org.apache.felix.metatype"));
+        assertTrue(lazyApiRegions.isMaterialized("global"));
+        assertTrue(lazyApiRegions.isMaterialized("internal"));
+        assertFalse(lazyApiRegions.isMaterialized("deprecated"));
+
+        assertSame(internal.getParent(), lazyApiRegions.getByName("global"));
+
+        ApiRegions apiRegions = lazyApiRegions.getApiRegions();
+        assertSame(internal, apiRegions.getByName("internal"));
+        assertTrue(apiRegions.getByName("deprecated").contains("org.apache.felix.metatype"));
+        assertTrue(lazyApiRegions.isMaterialized("deprecated"));
+    }
+
+    @Test
+    public void parseReader() throws IOException {
+        LazyApiRegions lazyApiRegions = ApiRegionsJSONParser.parseApiRegionsLazily(new StringReader(JSON));
+        assertTrue(lazyApiRegions.getByName("deprecated").contains("org.apache.felix.scr.component"));
+    }
+
+    @Test
+    public void parseReaderLargerThanTheReadBuffer() throws IOException {
+        StringBuilder json = new StringBuilder("[{\"name\":\"global\",\"exports\":[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i > 0 ? "," : "").append("\"org.apache.felix.api").append(i).append('"');
+        }
+        json.append("]}]");
+
+        LazyApiRegions lazyApiRegions = ApiRegionsJSONParser.parseApiRegionsLazily(new StringReader(json.toString()));
+        ApiRegion global = lazyApiRegions.getByName("global");
+        assertTrue(global.contains("org.apache.felix.api0"));
+        assertTrue(global.contains("org.apache.felix.api999"));
+    }
+
+}
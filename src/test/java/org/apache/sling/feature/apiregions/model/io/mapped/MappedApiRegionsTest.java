@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sling.feature.apiregions.model.io.mapped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.sling.feature.apiregions.model.ApiRegion;
+import org.apache.sling.feature.apiregions.model.ApiRegions;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedApiRegionsTest {
+
+    private ApiRegions apiRegions;
+
+    @Before
+    public void setUp() {
+        apiRegions = new ApiRegions();
+
+        ApiRegion base = apiRegions.addNew("base");
+        base.add("org.apache.felix.metatype");
+        base.add("org.apache.felix.inventory");
+
+        ApiRegion extended = apiRegions.addNew("extended");
+        extended.add("org.apache.felix.scr.info");
+        extended.add("org.apache.felix.scr.component");
+
+        apiRegions.addNew("internal");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void canNotWrapNonIndex() {
+        MappedApiRegions.wrap(ByteBuffer.wrap(new byte[32]));
+    }
+
+    @Test
+    public void queryMappedIndexFile() throws IOException {
+        Path indexFile = Files.createTempFile("api-regions", ".idx");
+        try {
+            ApiRegionsIndexWriter.writeIndex(apiRegions, indexFile);
+            indexAssertions(MappedApiRegions.map(indexFile));
+        } finally {
+            Files.delete(indexFile);
+        }
+    }
+
+    @Test
+    public void queryWrappedIndex() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApiRegionsIndexWriter.writeIndex(apiRegions, output);
+        indexAssertions(MappedApiRegions.wrap(ByteBuffer.wrap(output.toByteArray())));
+    }
+
+    @Test
+    public void queryWrappedIndexNotAtBufferStart() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(new byte[] { 1, 2, 3 });
+        ApiRegionsIndexWriter.writeIndex(apiRegions, output);
+
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray());
+        buffer.position(3);
+        indexAssertions(MappedApiRegions.wrap(buffer));
+        assertEquals(3, buffer.position());
+    }
+
+    private static void indexAssertions(MappedApiRegions mapped) {
+        MappedApiRegion base = mapped.getByName("base");
+        MappedApiRegion extended = mapped.getByName("extended");
+        MappedApiRegion internal = mapped.getByName("internal");
+
+        assertNull(base.getParent());
+        assertSame(base, extended.getParent());
+        assertSame(extended, internal.getParent());
+        assertNull(mapped.getByName("does-not-exist"));
+
+        assertTrue(base.exports("org.apache.felix.metatype"));
+        assertFalse(extended.exports("org.apache.felix.metatype"));
+        assertTrue(extended.contains("org.apache.felix.metatype"));
+        assertTrue(internal.contains("org.apache.felix.scr.info"));
+        assertFalse(base.contains("org.apache.felix.scr.info"));
+        assertFalse(internal.contains("org.apache.felix.does.not.exist"));
+        assertFalse(internal.contains(null));
+
+        assertSame(extended, mapped.getRegionOf("org.apache.felix.scr.component"));
+        assertNull(mapped.getRegionOf("org.apache.felix"));
+
+        assertEquals(Arrays.asList("org.apache.felix.inventory", "org.apache.felix.metatype"), base.getExports());
+        assertTrue(internal.getExports().isEmpty());
+        assertFalse(internal.isEmpty());
+
+        Set<String> visible = new HashSet<>();
+        for (String api : internal) {
+            visible.add(api);
+        }
+        assertEquals(4, visible.size());
+    }
+
+}